@@ -0,0 +1,48 @@
+package racetrack;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Loads the tracks the benchmarks run on. A name is either a file of the input directory, such as "R-track.txt", or
+ * such a file followed by "*k", which scales every space of the board up to a k x k block of the same space. The input
+ * directory is "input", relative to the working directory, unless the racetrack.input system property names another.
+ */
+public class BenchmarkTracks {
+
+    private BenchmarkTracks() {
+    }
+
+    /**
+     * @param name (String) the name of the track, as described by the class
+     * @param seed (Long) seed of the random stream of the track
+     * @return the loaded track
+     * @throws IOException Throws an IOException if the track file cannot be read, or the scaled track written.
+     */
+    public static Track open(String name, long seed) throws IOException {
+        String directory = System.getProperty("racetrack.input", "input");
+        int scale = name.indexOf('*');
+        if (scale < 0) {
+            return new Track(new File(directory, name).getPath(), new SplittableRandom(seed));
+        }
+
+        int factor = Integer.parseInt(name.substring(scale + 1));
+        Track original = new Track(new File(directory, name.substring(0, scale)).getPath());
+        File scaled = File.createTempFile("scaled-", ".txt");
+        scaled.deleteOnExit();
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(scaled))) {
+            out.write(original.getXSize() * factor + "," + original.getYSize() * factor);
+            out.newLine();
+            for (int x = 0; x < original.getXSize() * factor; x++) {
+                for (int y = 0; y < original.getYSize() * factor; y++) {
+                    out.write(original.charAt(x / factor, y / factor));
+                }
+                out.newLine();
+            }
+        }
+        return new Track(scaled.getPath(), new SplittableRandom(seed));
+    }
+}
@@ -0,0 +1,94 @@
+package racetrack;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Headless steps per second of both controllers, including the episodes restarted whenever the vehicle finishes, the
+ * cost of a single Q-learning action decision, and the rate at which CarBatch drives 10,000 vehicles from start to
+ * finish under the same policy as the value controller. Telemetry is discarded and every random stream is seeded, so
+ * each iteration drives the same trajectories.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ControllerBenchmark {
+
+    @Param({"L-track.txt", "O-track.txt", "R-track.txt"})
+    public String track;
+
+    @Param({"false", "true"})
+    public boolean totalReset;
+
+    private Track qLearningTrack; // the track driven by the Q-learning controller
+    private Track valueTrack; // the track driven by the value controller
+    private QLearningController qLearningController; // learns across every episode of an iteration
+    private ValueController valueController; // drives a policy solved once in setup
+    private Policy policy; // the policy solved once in setup
+    private CarBatch batch; // the vehicles of each batched rollout
+    private int x; // the x coordinate of the next decision benchmarked
+    private int y; // the y coordinate of the next decision benchmarked
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        qLearningTrack = BenchmarkTracks.open(track, 42);
+        qLearningController = new QLearningController(qLearningTrack, 0.1, 0.8, totalReset,
+                NullTelemetrySink.INSTANCE, new SplittableRandom(43));
+
+        valueTrack = BenchmarkTracks.open(track, 42);
+        policy = Policy.compile(ValueIteration.generate(valueTrack.board, 0.01, 0.9));
+        valueController = new ValueController(valueTrack, policy, totalReset, NullTelemetrySink.INSTANCE);
+        batch = new CarBatch(valueTrack, 10_000, totalReset, new SplittableRandom(44));
+        x = 0;
+        y = 0;
+    }
+
+    @Benchmark
+    public void qLearningStep() {
+        if (qLearningController.act()) {
+            qLearningTrack.newEpisode();
+            qLearningController.beginEpisode();
+        }
+    }
+
+    @Benchmark
+    public void valueStep() {
+        if (valueController.act()) {
+            valueTrack.newEpisode();
+            valueController.beginEpisode();
+        }
+    }
+
+    @Benchmark
+    public void decideNextAction() {
+        qLearningController.decideNextAction(x, y);
+        if (++y == qLearningTrack.getYSize()) { // sweep every space of the board, so no single entry is favoured
+            y = 0;
+            if (++x == qLearningTrack.getXSize()) {
+                x = 0;
+            }
+        }
+    }
+
+    @Benchmark
+    public int batchRollout() {
+        return batch.run(policy, 1_000); // vehicles which loop under the policy are cut off
+    }
+}
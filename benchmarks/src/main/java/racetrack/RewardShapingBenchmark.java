@@ -0,0 +1,43 @@
+package racetrack;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time taken to build the shaped reward matrix of each track, bypassing the copy kept by Track.rewardMatrix().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RewardShapingBenchmark {
+
+    @Param({"L-track.txt", "O-track.txt", "R-track.txt", "R-track.txt*4", "R-track.txt*16"})
+    public String track;
+
+    private Track loaded; // the track whose reward matrix is built
+
+    @Setup
+    public void setup() throws IOException {
+        loaded = BenchmarkTracks.open(track, 42);
+    }
+
+    @Benchmark
+    public double[] buildRewardMatrix() {
+        return RewardShaping.buildRewardMatrix(loaded);
+    }
+}
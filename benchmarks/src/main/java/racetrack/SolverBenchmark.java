@@ -0,0 +1,66 @@
+package racetrack;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time taken to solve each track with ValueIteration, from the board to the converged value table, with either the
+ * scalar sweep or VectorKernel. Solvers which do not sweep with either are measured by SolverStrategyBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SolverBenchmark {
+
+    @Param({"L-track.txt", "O-track.txt", "R-track.txt", "R-track.txt*4", "R-track.txt*16"})
+    public String track;
+
+    @Param({"0.01"})
+    public double threshold;
+
+    @Param({"0.9", "0.99"})
+    public double gamma;
+
+    @Param({"false", "true"})
+    public boolean vectorized;
+
+    private char[][] board; // the board of the track
+    private TransitionModel model; // the compiled board, shared by the solvers which are given one
+
+    @Setup
+    public void setup() throws IOException {
+        Track loaded = BenchmarkTracks.open(track, 42);
+        board = loaded.board;
+        model = loaded.spaceModel();
+    }
+
+    @Benchmark
+    public double[][] generate() {
+        ValueIteration solver = new ValueIteration(board, gamma); // as ValueIteration.generate(), with the chosen sweep
+        solver.setVectorized(vectorized);
+        return solver.solve(threshold);
+    }
+
+    @Benchmark
+    public double[][] solveCompiled() {
+        ValueIteration solver = new ValueIteration(model, gamma, ForkJoinPool.commonPool());
+        solver.setVectorized(vectorized);
+        return solver.solve(threshold);
+    }
+}
@@ -0,0 +1,60 @@
+package racetrack;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time taken to solve each track with the solvers which replace full sweeps: prioritized sweeping with
+ * ValueIteration.solvePrioritized(), and MultigridValueIteration. Neither uses VectorKernel, so unlike SolverBenchmark
+ * there is no choice of sweep to measure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SolverStrategyBenchmark {
+
+    @Param({"L-track.txt", "O-track.txt", "R-track.txt", "R-track.txt*4", "R-track.txt*16"})
+    public String track;
+
+    @Param({"0.01"})
+    public double threshold;
+
+    @Param({"0.9", "0.99"})
+    public double gamma;
+
+    private char[][] board; // the board of the track
+    private TransitionModel model; // the compiled board, shared by every prioritized solver
+
+    @Setup
+    public void setup() throws IOException {
+        Track loaded = BenchmarkTracks.open(track, 42);
+        board = loaded.board;
+        model = loaded.spaceModel();
+    }
+
+    @Benchmark
+    public double[][] solvePrioritized() {
+        return new ValueIteration(model, gamma, ForkJoinPool.commonPool()).solvePrioritized(threshold);
+    }
+
+    @Benchmark
+    public double[][] solveMultigrid() {
+        return new MultigridValueIteration(Board.of(board), gamma, ForkJoinPool.commonPool()).solve(threshold);
+    }
+}
@@ -0,0 +1,183 @@
+package racetrack;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Telemetry sink which hands every report to a background thread through a fixed-size ring buffer of primitive
+ * records, and renders them to the console there. The calling thread never blocks and never allocates: if the renderer
+ * falls behind and the buffer fills up, further reports are dropped and counted instead.
+ * <p>
+ * The buffer has a single producer: every report must come from one thread, the thread of the controller the sink is
+ * attached to, and close() must be called on that thread too, or after it has stopped reporting. Reports made after
+ * close() are ignored.
+ */
+public class AsyncTelemetrySink implements TelemetrySink {
+
+    private static final int STEP = 0; // record kind of onStep()
+    private static final int REWARD = 1; // record kind of onReward()
+    private static final int RESET = 2; // record kind of onReset()
+    private static final long IDLE_NANOS = 100_000; // how long the renderer waits when the buffer is empty
+
+    private final Track track; // the track which is rendered
+    private final int mask; // capacity - 1, used to wrap sequence numbers into slots
+    private final int[] kinds; // the kind of each record
+    private final int[] times; // the time of each record
+    private final int[] firsts; // the first argument of each record
+    private final int[] seconds; // the second argument of each record
+    private final int[] thirds; // the third argument of each record
+    private final int[] fourths; // the fourth argument of each record
+    private final double[] rewards; // the reward of each reward record
+    private final AtomicLong head = new AtomicLong(); // sequence number of the next record to be written
+    private final AtomicLong tail = new AtomicLong(); // sequence number of the next record to be rendered
+    private final AtomicLong dropped = new AtomicLong(); // the number of records dropped because the buffer was full
+    private final Thread renderer; // the background thread which renders the records
+    private volatile boolean closed; // set once no more records will be written
+
+    /**
+     * Constructor for the AsyncTelemetrySink class. Starts the background rendering thread.
+     *
+     * @param track (Track) the track which is rendered
+     * @param capacity (Integer) the number of records the buffer holds, rounded up to a power of two
+     */
+    public AsyncTelemetrySink(Track track, int capacity) {
+        this.track = track;
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        kinds = new int[size];
+        times = new int[size];
+        firsts = new int[size];
+        seconds = new int[size];
+        thirds = new int[size];
+        fourths = new int[size];
+        rewards = new double[size];
+        renderer = new Thread(this::render, "telemetry-renderer");
+        renderer.setDaemon(true);
+        renderer.start();
+    }
+
+    /**
+     * Method claims the next slot of the buffer for the (single) producing thread.
+     *
+     * @return the slot, or -1 if the buffer is full
+     */
+    private int claim() {
+        long sequence = head.get();
+        if (sequence - tail.get() > mask) {
+            dropped.incrementAndGet();
+            return -1;
+        }
+        return (int) sequence & mask;
+    }
+
+    /**
+     * Method publishes the slot most recently claimed to the renderer.
+     */
+    private void publish() {
+        head.lazySet(head.get() + 1);
+    }
+
+    @Override
+    public void onStep(int time, int xAction, int yAction, int x, int y) {
+        if (closed) {
+            return;
+        }
+        int slot = claim();
+        if (slot >= 0) {
+            kinds[slot] = STEP;
+            times[slot] = time;
+            firsts[slot] = xAction;
+            seconds[slot] = yAction;
+            thirds[slot] = x;
+            fourths[slot] = y;
+            publish();
+        }
+    }
+
+    @Override
+    public void onReward(int time, double reward) {
+        if (closed) {
+            return;
+        }
+        int slot = claim();
+        if (slot >= 0) {
+            kinds[slot] = REWARD;
+            times[slot] = time;
+            rewards[slot] = reward;
+            publish();
+        }
+    }
+
+    @Override
+    public void onReset(int time, int xCrash, int yCrash, int x, int y) {
+        if (closed) {
+            return;
+        }
+        int slot = claim();
+        if (slot >= 0) {
+            kinds[slot] = RESET;
+            times[slot] = time;
+            firsts[slot] = xCrash;
+            seconds[slot] = yCrash;
+            thirds[slot] = x;
+            fourths[slot] = y;
+            publish();
+        }
+    }
+
+    /**
+     * @return the number of records dropped because the renderer had fallen behind
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Method stops accepting records, then waits for the renderer to print everything already buffered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(renderer);
+        try {
+            renderer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Body of the rendering thread: prints records in order until the sink is closed and the buffer is drained.
+     */
+    private void render() {
+        StringBuilder buffer = new StringBuilder();
+        while (true) {
+            long sequence = tail.get();
+            if (sequence == head.get()) {
+                if (closed && sequence == head.get()) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_NANOS);
+                continue;
+            }
+
+            int slot = (int) sequence & mask;
+            buffer.setLength(0);
+            switch (kinds[slot]) {
+                case STEP:
+                    buffer.append(firsts[slot]).append("  ").append(seconds[slot]).append('\n');
+                    track.render(buffer, thirds[slot], fourths[slot]);
+                    break;
+                case REWARD:
+                    buffer.append(rewards[slot]).append('\n');
+                    break;
+                default:
+                    buffer.append("Reset from (").append(firsts[slot]).append(", ").append(seconds[slot])
+                            .append(") to (").append(thirds[slot]).append(", ").append(fourths[slot]).append(")\n");
+                    track.render(buffer, thirds[slot], fourths[slot]);
+            }
+            tail.lazySet(sequence + 1); // the slot may be reused once its contents have been read
+            System.out.print(buffer);
+        }
+    }
+}
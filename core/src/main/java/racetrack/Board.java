@@ -0,0 +1,44 @@
+package racetrack;
+
+/**
+ * Read-only view of a track board, in the ASCII representation used by the track files: '#' for walls, '.' for open
+ * spaces, 'S' for starting spaces and 'F' for finish spaces.
+ */
+public interface Board {
+
+    int getXSize();
+
+    int getYSize();
+
+    /**
+     * @param x (Integer) the x coordinate, in the range [0, xSize)
+     * @param y (Integer) the y coordinate, in the range [0, ySize)
+     * @return the character of the space
+     */
+    char charAt(int x, int y);
+
+    /**
+     * Method wraps a character matrix as a board.
+     *
+     * @param board (2D Character Array) ASCII representation of the game board
+     * @return a view of the matrix
+     */
+    static Board of(char[][] board) {
+        return new Board() {
+            @Override
+            public int getXSize() {
+                return board.length;
+            }
+
+            @Override
+            public int getYSize() {
+                return board[0].length;
+            }
+
+            @Override
+            public char charAt(int x, int y) {
+                return board[x][y];
+            }
+        };
+    }
+}
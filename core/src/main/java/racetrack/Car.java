@@ -1,18 +1,23 @@
-import java.util.Random;
+package racetrack;
+
+import java.util.SplittableRandom;
 
 public class Car {
 
-    static final Random RANDOM = new Random();
+    private static final Metrics.Histogram STEP_NANOS = Metrics.histogram("car.stepNanos");
+
+    private final SplittableRandom random; // source of the chance that this vehicle ignores an acceleration
 
     protected int xStart; // the current x coordinate of the vehicle
     protected int yStart; // the current y coordinate of the vehicle
     protected int x; // list of the vehicle's x position at index == time t
     protected int y; // list of the vehicle's y position at index == time t
-    private int xVelocity = 0; // the vehicle's x velocity
-    private int yVelocity = 0; // the vehicle's y velocity
+    protected int xVelocity = 0; // the vehicle's x velocity
+    protected int yVelocity = 0; // the vehicle's y velocity
     private int xAcceleration = 0; // the present acceleration of the vehicle's xVelocity
     private int yAcceleration = 0; // the present acceleration of the vehicle's yVelocity
     protected int currentTime = 0; // the present time t
+    protected boolean ignored; // whether the most recent acceleration was ignored
 
     /**
      * Constructor for the Car class. Takes in the initial x and y position of the vehicle and sets up initial values
@@ -22,6 +27,19 @@ public class Car {
      * @param y (Integer) the initial y position of the vehicle
      */
     public Car(int x, int y) {
+        this(x, y, new SplittableRandom());
+    }
+
+    /**
+     * Constructor for the Car class. Takes in the initial x and y position of the vehicle and the random stream which
+     * decides whether accelerations are ignored, so that the behavior of the vehicle can be reproduced from a seed.
+     *
+     * @param x (Integer) the initial x position of the vehicle
+     * @param y (Integer) the initial y position of the vehicle
+     * @param random (SplittableRandom) random stream owned by the vehicle
+     */
+    public Car(int x, int y, SplittableRandom random) {
+        this.random = random;
         xStart = x;
         yStart = y;
         this.x = x;
@@ -72,7 +90,26 @@ public class Car {
      * @param yChange (Integer) the change applied to the yVelocity for the current time
      */
     public void applyAcceleration(int xChange, int yChange) {
-        if (RANDOM.nextInt(100) < 20) { // select a value between 0 and 99
+        if (!Metrics.ENABLED) {
+            accelerate(xChange, yChange);
+            return;
+        }
+        StepEvent event = new StepEvent();
+        event.begin();
+        long start = System.nanoTime();
+        event.ignored = accelerate(xChange, yChange);
+        STEP_NANOS.record(System.nanoTime() - start);
+        event.commit();
+    }
+
+    /**
+     * Method performs the work of applyAcceleration().
+     *
+     * @return true if the acceleration was ignored
+     */
+    private boolean accelerate(int xChange, int yChange) {
+        ignored = random.nextInt(100) < 20; // select a value between 0 and 99
+        if (ignored) {
             // if the selected value is between 0 and 19, then there is no acceleration or deceleration
             //System.out.println("Action Ignored!");
             xAcceleration = 0;
@@ -86,6 +123,7 @@ public class Car {
         updateVelocity(); // update the vehicle's velocity with the new acceleration values
         updatePosition(); // update the vehicle's position with the new velocity values
         currentTime++;
+        return ignored;
     }
 
     /**
@@ -100,6 +138,19 @@ public class Car {
         yAcceleration = 0;
     }
 
+    /**
+     * Method begins a new episode: the vehicle is placed on a new origin at rest, and its time starts over.
+     *
+     * @param x (Integer) the x coordinate of the new origin
+     * @param y (Integer) the y coordinate of the new origin
+     */
+    public void restart(int x, int y) {
+        xStart = x;
+        yStart = y;
+        reset(x, y);
+        currentTime = 1;
+    }
+
     /**
      * Method sets the position of the vehicle to a provided coordinate, while also clearing its velocity and acceleration.
      * @param x (Integer) the x coordinate the vehicle is set to
@@ -0,0 +1,238 @@
+package racetrack;
+
+import java.util.SplittableRandom;
+
+/**
+ * Many vehicles driven on one track at once, for evaluating a policy over thousands of rollouts. Instead of one Car
+ * object per vehicle, the position and velocity of every vehicle are kept in parallel int arrays, and a step advances
+ * every vehicle still on the track in a single loop. Each vehicle follows the same rules as a Car driven by
+ * ValueController: an acceleration is ignored with a 20% chance, velocities are limited to [-5, 5], a vehicle which
+ * lands on a wall or out of bounds is stopped either at its starting space or on the open space nearest to the
+ * collision, and a vehicle which lands on the finish line leaves the track.
+ */
+public class CarBatch {
+
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final byte[] spaces; // the type of each space, indexed by x * ySize + y
+    private final int[] startingSpaces; // every starting space, encoded as x * ySize + y
+    private final OpenSpaceIndex openSpaces; // where a vehicle stops after a collision, when totalReset is disabled
+    private final boolean totalReset; // state determining whether the vehicle will return to origin upon collision
+    private final SplittableRandom random; // source of the starting spaces and of ignored accelerations
+
+    private final int[] x; // the x coordinate of each vehicle
+    private final int[] y; // the y coordinate of each vehicle
+    private final int[] xVelocity; // the x velocity of each vehicle
+    private final int[] yVelocity; // the y velocity of each vehicle
+    private final int[] start; // the starting space of each vehicle, encoded as x * ySize + y
+    private final int[] steps; // the number of steps each vehicle has taken
+    private final int[] active; // the vehicles still on the track, in no particular order
+    private int activeCount; // the number of vehicles still on the track
+    private long crashes; // the number of collisions since the last reset()
+
+    /**
+     * Constructor for the CarBatch class. Every vehicle is placed on a randomly selected starting space, at rest.
+     *
+     * @param track (Track) the track every vehicle is driven on
+     * @param cars (Integer) the number of vehicles
+     * @param totalReset (Boolean) state determining whether a vehicle will return to origin upon collision
+     * @param random (SplittableRandom) random stream owned by the batch
+     */
+    public CarBatch(Track track, int cars, boolean totalReset, SplittableRandom random) {
+        this.totalReset = totalReset;
+        this.random = random;
+        xSize = track.getXSize();
+        ySize = track.getYSize();
+        spaces = TransitionModel.classify(track);
+        openSpaces = track.openSpaceIndex();
+        int starts = 0;
+        for (byte space : spaces) {
+            starts += space == TransitionModel.START ? 1 : 0;
+        }
+        startingSpaces = new int[starts];
+        for (int space = 0, next = 0; space < spaces.length; space++) {
+            if (spaces[space] == TransitionModel.START) {
+                startingSpaces[next++] = space;
+            }
+        }
+        if (starts == 0) {
+            throw new IllegalArgumentException("the track has no starting spaces");
+        }
+
+        x = new int[cars];
+        y = new int[cars];
+        xVelocity = new int[cars];
+        yVelocity = new int[cars];
+        start = new int[cars];
+        steps = new int[cars];
+        active = new int[cars];
+        reset();
+    }
+
+    /**
+     * Method begins a new rollout: every vehicle is moved to a randomly selected starting space, at rest, and its step
+     * count starts over.
+     */
+    public void reset() {
+        for (int car = 0; car < x.length; car++) {
+            start[car] = startingSpaces[random.nextInt(startingSpaces.length)];
+            x[car] = start[car] / ySize;
+            y[car] = start[car] % ySize;
+            xVelocity[car] = 0;
+            yVelocity[car] = 0;
+            steps[car] = 0;
+            active[car] = car;
+        }
+        activeCount = x.length;
+        crashes = 0;
+    }
+
+    /**
+     * Method advances every vehicle still on the track by one step, each taking the action the policy selects for its
+     * current state.
+     *
+     * @param policy (Policy) the policy every vehicle follows
+     * @return the number of vehicles still on the track
+     */
+    public int step(Policy policy) {
+        // walk the active list backwards, so a vehicle removed from it is replaced by one already stepped
+        for (int k = activeCount - 1; k >= 0; k--) {
+            int car = active[k];
+            advance(k, car, policy.actionAt(x[car], y[car], xVelocity[car], yVelocity[car]));
+        }
+        return activeCount;
+    }
+
+    /**
+     * Method advances every vehicle still on the track by one step, each taking its own action.
+     *
+     * @param actions (Byte Array) the action of each vehicle, encoded as (i + 1) * 3 + (j + 1); entries of vehicles no
+     *                longer on the track are ignored
+     * @return the number of vehicles still on the track
+     */
+    public int step(byte[] actions) {
+        for (int k = activeCount - 1; k >= 0; k--) {
+            int car = active[k];
+            advance(k, car, actions[car]);
+        }
+        return activeCount;
+    }
+
+    /**
+     * Method drives every vehicle from a starting space until it crosses the finish line, or until the step limit is
+     * reached.
+     *
+     * @param policy (Policy) the policy every vehicle follows
+     * @param maxSteps (Integer) the most steps any vehicle takes
+     * @return the number of vehicles which did not finish within the limit
+     */
+    public int run(Policy policy, int maxSteps) {
+        reset();
+        for (int step = 0; step < maxSteps && activeCount > 0; step++) {
+            step(policy);
+        }
+        return activeCount;
+    }
+
+    /**
+     * Method applies an action to a vehicle, as Car.applyAcceleration() followed by the collision handling of
+     * ValueController, and removes the vehicle from the active list once it reaches the finish line.
+     *
+     * @param k (Integer) the position of the vehicle in the active list
+     * @param car (Integer) the index of the vehicle
+     * @param action (Integer) the action, encoded as (i + 1) * 3 + (j + 1)
+     */
+    private void advance(int k, int car, int action) {
+        int xChange = 0;
+        int yChange = 0;
+        if (random.nextInt(100) >= 20) { // the acceleration is ignored 20% of the time
+            xChange = action / 3 - 1;
+            yChange = action % 3 - 1;
+        }
+        int xNew = Math.max(-5, Math.min(xVelocity[car] + xChange, 5));
+        int yNew = Math.max(-5, Math.min(yVelocity[car] + yChange, 5));
+        int xNext = x[car] + xNew;
+        int yNext = y[car] + yNew;
+        steps[car]++;
+
+        byte space = xNext >= 0 && xNext < xSize && yNext >= 0 && yNext < ySize ? spaces[xNext * ySize + yNext] : TransitionModel.WALL;
+        if (space == TransitionModel.WALL) {
+            int stop = totalReset ? start[car] : openSpaces.nearest(xNext, yNext, xNext, yNext);
+            xNext = stop / ySize;
+            yNext = stop % ySize;
+            xNew = 0;
+            yNew = 0;
+            crashes++;
+        } else if (space == TransitionModel.FINISH) {
+            active[k] = active[--activeCount];
+        }
+        x[car] = xNext;
+        y[car] = yNext;
+        xVelocity[car] = xNew;
+        yVelocity[car] = yNew;
+    }
+
+    /**
+     * @return the number of vehicles in the batch
+     */
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * @return the number of vehicles still on the track
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * @return the number of collisions since the last reset()
+     */
+    public long getCrashes() {
+        return crashes;
+    }
+
+    /**
+     * @param car (Integer) the index of the vehicle
+     * @return the number of steps the vehicle has taken since the last reset()
+     */
+    public int getSteps(int car) {
+        return steps[car];
+    }
+
+    public int getX(int car) {
+        return x[car];
+    }
+
+    public int getY(int car) {
+        return y[car];
+    }
+
+    public int getXVelocity(int car) {
+        return xVelocity[car];
+    }
+
+    public int getYVelocity(int car) {
+        return yVelocity[car];
+    }
+
+    /**
+     * @return the average number of steps taken by the vehicles which reached the finish line, or NaN if none did
+     */
+    public double meanFinishSteps() {
+        long total = 0;
+        int finished = 0;
+        boolean[] running = new boolean[x.length];
+        for (int k = 0; k < activeCount; k++) {
+            running[active[k]] = true;
+        }
+        for (int car = 0; car < x.length; car++) {
+            if (!running[car]) {
+                total += steps[car];
+                finished++;
+            }
+        }
+        return finished == 0 ? Double.NaN : (double) total / finished;
+    }
+}
@@ -0,0 +1,329 @@
+package racetrack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary checkpoint of the tables learned by QLearningController or solved by ValueIteration, so that training can
+ * resume and solved tracks can be driven without solving them again. A checkpoint is a little-endian header followed
+ * by the tables as flat arrays:
+ * <pre>
+ *     int magic, int version, int kind, int xSize, int ySize, int totalReset,
+ *     long trackHash, long episodes, double explorationChance, double gamma, double lambda,
+ *     Q_TABLE: xSize * ySize * 9 double Q-values in [x][y][i][j] order, then 9 int alpha counts in [i][j] order
+ *     VALUE_TABLE: xSize * ySize double values in [x][y] order
+ * </pre>
+ * Checkpoints are written to a temporary file which then replaces the target, so a crash never leaves a partial
+ * checkpoint behind. They are read through memory mappings of the tables, each under 2 GB and holding whole spaces, so
+ * tables of any size can be read back.
+ */
+public class Checkpoint {
+
+    public static final int Q_TABLE = 1; // kind of a checkpoint written from a QLearningController
+    public static final int VALUE_TABLE = 2; // kind of a checkpoint written from a ValueIteration table
+    private static final int MAGIC = 0x504b4352; // "RCKP" in little-endian order
+    private static final int VERSION = 2;
+    private static final int HEADER = 64; // size of the header, in bytes
+    private static final int CHUNK = 1 << 16; // size of the buffer tables are written through, in bytes
+    private static final long WINDOW = 72L << 24; // size of each mapping of the tables: whole spaces, under 2 GB
+
+    private final int kind; // Q_TABLE or VALUE_TABLE
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final boolean totalReset; // the collision behaviour the tables were learned with
+    private final long trackHash; // content hash of the track the tables belong to, see Track.contentHash()
+    private final long episodes; // the number of episodes completed when the checkpoint was written
+    private final double explorationChance; // the exploration chance the tables were learned with
+    private final double gamma; // the discount the tables were learned or solved with
+    private final double lambda; // the decay of the eligibility traces the tables were learned with, or 0
+    private MappedByteBuffer[] data; // the tables following the header, in windows of WINDOW bytes
+
+    private Checkpoint(ByteBuffer header) {
+        kind = header.getInt(8);
+        xSize = header.getInt(12);
+        ySize = header.getInt(16);
+        totalReset = header.getInt(20) != 0;
+        trackHash = header.getLong(24);
+        episodes = header.getLong(32);
+        explorationChance = header.getDouble(40);
+        gamma = header.getDouble(48);
+        lambda = header.getDouble(56);
+    }
+
+    /**
+     * Method maps a checkpoint file into memory. Only the header is read up front.
+     *
+     * @param fileName (String) the file name of the checkpoint
+     * @return the mapped checkpoint
+     * @throws IOException Throws an IOException if the file cannot be read, is not a checkpoint, or is truncated.
+     */
+    public static Checkpoint open(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            int read = 0;
+            while (header.hasRemaining() && read >= 0) {
+                read = channel.read(header);
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException(fileName + " is not a checkpoint");
+            }
+            Checkpoint checkpoint = new Checkpoint(header);
+            if (checkpoint.xSize <= 0 || checkpoint.ySize <= 0) {
+                throw new IOException(fileName + " has a corrupt header");
+            }
+            long bytes = checkpoint.dataBytes();
+            if (channel.size() != HEADER + bytes) {
+                throw new IOException(fileName + " is truncated");
+            }
+            checkpoint.data = new MappedByteBuffer[(int) ((bytes + WINDOW - 1) / WINDOW)];
+            for (int window = 0; window < checkpoint.data.length; window++) {
+                long offset = window * WINDOW;
+                checkpoint.data[window] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER + offset,
+                        Math.min(WINDOW, bytes - offset));
+                checkpoint.data[window].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return checkpoint;
+        }
+    }
+
+    /**
+     * Method writes the tables of a Q-learning controller to a checkpoint file.
+     *
+     * @param fileName (String) the file name of the checkpoint, replaced if it exists
+     * @param trackHash (Long) content hash of the track, see Track.contentHash()
+     * @param explorationChance (Double) the exploration chance of the controller
+     * @param gamma (Double) the discount of the controller
+     * @param lambda (Double) the decay of the eligibility traces of the controller, or 0 for one-step updates
+     * @param totalReset (Boolean) the collision behaviour of the controller
+     * @param episodes (Long) the number of episodes the controller has completed
+     * @param states (StateIndex) the states of the board the Q-values are indexed by
+     * @param qValues (Double Array) the Q-values of the controller, indexed state * 9 + i * 3 + j; walls are written as 0
+     * @param alphaTable (2D Integer Array) the number of times each action has been applied, indexed [i][j]
+     * @throws IOException Throws an IOException if the file cannot be written.
+     */
+    public static void writeQTable(String fileName, long trackHash, double explorationChance, double gamma,
+                                   double lambda, boolean totalReset, long episodes, StateIndex states, double[] qValues,
+                                   int[][] alphaTable) throws IOException {
+        int xSize = states.getXSize();
+        int ySize = states.getYSize();
+        try (Writer out = new Writer(fileName)) {
+            out.header(Q_TABLE, xSize, ySize, totalReset, trackHash, episodes, explorationChance, gamma, lambda);
+            for (int x = 0; x < xSize; x++) {
+                for (int y = 0; y < ySize; y++) {
+                    int state = states.stateOf(x, y);
+                    for (int action = 0; action < 9; action++) {
+                        out.reserve(Double.BYTES).putDouble(state < 0 ? 0 : qValues[state * 9 + action]);
+                    }
+                }
+            }
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    out.reserve(Integer.BYTES).putInt(alphaTable[i][j]);
+                }
+            }
+            out.commit();
+        }
+    }
+
+    /**
+     * Method writes a table solved by ValueIteration to a checkpoint file.
+     *
+     * @param fileName (String) the file name of the checkpoint, replaced if it exists
+     * @param trackHash (Long) content hash of the track, see Track.contentHash()
+     * @param gamma (Double) the discount the table was solved with
+     * @param valueTable (2D Double Array) the value of each space, indexed [x][y]
+     * @throws IOException Throws an IOException if the file cannot be written.
+     */
+    public static void writeValueTable(String fileName, long trackHash, double gamma, double[][] valueTable) throws IOException {
+        int xSize = valueTable.length;
+        int ySize = valueTable[0].length;
+        try (Writer out = new Writer(fileName)) {
+            out.header(VALUE_TABLE, xSize, ySize, false, trackHash, 0, 0, gamma, 0);
+            for (int x = 0; x < xSize; x++) {
+                for (int y = 0; y < ySize; y++) {
+                    out.reserve(Double.BYTES).putDouble(valueTable[x][y]);
+                }
+            }
+            out.commit();
+        }
+    }
+
+    /**
+     * Method checks that the checkpoint is of the expected kind and was written for a track with the same board.
+     *
+     * @param track (Track) the track the checkpoint is about to be used on
+     * @param expectedKind (Integer) Q_TABLE or VALUE_TABLE
+     */
+    public void verify(Track track, int expectedKind) {
+        if (kind != expectedKind) {
+            throw new IllegalArgumentException("checkpoint holds the wrong kind of table");
+        }
+        if (xSize != track.getXSize() || ySize != track.getYSize() || trackHash != track.contentHash()) {
+            throw new IllegalArgumentException("checkpoint was written for a different track");
+        }
+    }
+
+    /**
+     * Method copies the Q-values of a Q_TABLE checkpoint into a table indexed by the states of the same board. The
+     * Q-values of walls are skipped.
+     *
+     * @param states (StateIndex) the states of the board the table is indexed by
+     * @param qValues (Double Array) the table to fill, indexed state * 9 + i * 3 + j
+     */
+    public void readQTable(StateIndex states, double[] qValues) {
+        for (int x = 0; x < xSize; x++) {
+            for (int y = 0; y < ySize; y++) {
+                int state = states.stateOf(x, y);
+                if (state >= 0) {
+                    long offset = ((long) x * ySize + y) * 9 * Double.BYTES;
+                    MappedByteBuffer window = data[(int) (offset / WINDOW)];
+                    int position = (int) (offset % WINDOW); // the 9 Q-values of a space never straddle two windows
+                    for (int action = 0; action < 9; action++) {
+                        qValues[state * 9 + action] = window.getDouble(position + action * Double.BYTES);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Method copies the action counts of a Q_TABLE checkpoint into a 3 x 3 table.
+     *
+     * @param alphaTable (2D Integer Array) the table to fill, indexed [i][j]
+     */
+    public void readAlphaTable(int[][] alphaTable) {
+        long offset = (long) xSize * ySize * 9 * Double.BYTES;
+        MappedByteBuffer window = data[(int) (offset / WINDOW)];
+        int position = (int) (offset % WINDOW); // the counts begin a space after the last Q-values, in a single window
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                alphaTable[i][j] = window.getInt(position + (i * 3 + j) * Integer.BYTES);
+            }
+        }
+    }
+
+    /**
+     * @return the values of a VALUE_TABLE checkpoint, indexed [x][y]
+     */
+    public double[][] readValueTable() {
+        double[][] valueTable = new double[xSize][ySize];
+        for (int x = 0; x < xSize; x++) {
+            for (int y = 0; y < ySize; y++) {
+                long offset = ((long) x * ySize + y) * Double.BYTES;
+                valueTable[x][y] = data[(int) (offset / WINDOW)].getDouble((int) (offset % WINDOW));
+            }
+        }
+        return valueTable;
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    public int getXSize() {
+        return xSize;
+    }
+
+    public int getYSize() {
+        return ySize;
+    }
+
+    public boolean isTotalReset() {
+        return totalReset;
+    }
+
+    public long getTrackHash() {
+        return trackHash;
+    }
+
+    public long getEpisodes() {
+        return episodes;
+    }
+
+    public double getExplorationChance() {
+        return explorationChance;
+    }
+
+    public double getGamma() {
+        return gamma;
+    }
+
+    public double getLambda() {
+        return lambda;
+    }
+
+    /**
+     * @return the size of the tables following the header, in bytes
+     */
+    private long dataBytes() {
+        long spaces = (long) xSize * ySize;
+        return kind == Q_TABLE ? spaces * 9 * Double.BYTES + 9 * Integer.BYTES : spaces * Double.BYTES;
+    }
+
+    /**
+     * Writes a checkpoint through a fixed-size buffer into a temporary file, which replaces the target once committed.
+     * A writer closed without being committed deletes its temporary file instead.
+     */
+    private static class Writer implements AutoCloseable {
+        private final Path target; // the file being written
+        private final Path temporary; // the file written to until the checkpoint is complete
+        private final FileChannel out; // channel of the temporary file
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+        private boolean committed; // set once the temporary file has replaced the target
+
+        Writer(String fileName) throws IOException {
+            target = Path.of(fileName);
+            temporary = Path.of(fileName + ".tmp");
+            out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+        }
+
+        void header(int kind, int xSize, int ySize, boolean totalReset, long trackHash, long episodes,
+                    double explorationChance, double gamma, double lambda) {
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(kind).putInt(xSize).putInt(ySize).putInt(totalReset ? 1 : 0)
+                    .putLong(trackHash).putLong(episodes).putDouble(explorationChance).putDouble(gamma)
+                    .putDouble(lambda);
+        }
+
+        /**
+         * @return the buffer, flushed first if it cannot hold the requested number of bytes
+         */
+        ByteBuffer reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void commit() throws IOException {
+            flush();
+            out.force(false);
+            out.close();
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package racetrack;
+
+/**
+ * Telemetry sink which prints the progress of a controller to the console on the calling thread. Only every n-th step
+ * is printed, so that long runs are not dominated by rendering the track.
+ */
+public class ConsoleTelemetrySink implements TelemetrySink {
+
+    private final Track track; // the track which is rendered
+    private final int interval; // the number of steps between two printed steps
+    private final StringBuilder buffer = new StringBuilder(); // reused for every print
+    private long steps; // the number of steps reported so far
+
+    /**
+     * Constructor for the ConsoleTelemetrySink class.
+     *
+     * @param track (Track) the track which is rendered
+     * @param interval (Integer) the number of steps between two printed steps; 1 prints every step
+     */
+    public ConsoleTelemetrySink(Track track, int interval) {
+        this.track = track;
+        this.interval = interval;
+    }
+
+    /**
+     * @return true if the most recently reported step is printed
+     */
+    private boolean sampled() {
+        return (steps - 1) % interval == 0;
+    }
+
+    @Override
+    public void onStep(int time, int xAction, int yAction, int x, int y) {
+        steps++;
+        if (!sampled()) {
+            return;
+        }
+        buffer.setLength(0);
+        buffer.append(xAction).append("  ").append(yAction).append('\n');
+        track.render(buffer, x, y);
+        System.out.print(buffer);
+    }
+
+    @Override
+    public void onReward(int time, double reward) {
+        if (sampled()) {
+            System.out.println(reward);
+        }
+    }
+
+    @Override
+    public void onReset(int time, int xCrash, int yCrash, int x, int y) {
+        if (!sampled()) {
+            return;
+        }
+        buffer.setLength(0);
+        buffer.append("Reset from (").append(xCrash).append(", ").append(yCrash).append(") to (").append(x).append(", ")
+                .append(y).append(")\n");
+        track.render(buffer, x, y);
+        System.out.print(buffer);
+    }
+
+    @Override
+    public void onValueTable(double[][] valueTable) {
+        for (double[] row : valueTable) {
+            for (double value : row) {
+                System.out.print(String.format("%.12f \t", value));
+            }
+            System.out.println("\n");
+        }
+    }
+}
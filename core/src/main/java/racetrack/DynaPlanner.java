@@ -0,0 +1,150 @@
+package racetrack;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background planner for Dyna-Q. The QLearningController it is attached to reports every transition it learns from;
+ * the planner remembers the most recent outcome of each state and action in a flat primitive model, and a background
+ * thread replays remembered transitions, picked uniformly at random, as Q-learning updates into the SharedQTable the
+ * controller learns into. Each real step thereby pays for several Q-updates made on an otherwise idle core.
+ * <p>
+ * The planner is paced by the controller: it makes at most a configured number of updates per real step reported, and
+ * waits when it is ahead. The controller never waits for the planner. Every model entry packs the next state and the
+ * reward, as a float, into one long, so the planner never reads half of a transition.
+ */
+public class DynaPlanner implements AutoCloseable {
+
+    private static final VarHandle MODEL = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long UNSEEN = -1; // model entry of a state and action which has not been taken yet
+    private static final long IDLE_NANOS = 100_000; // how long the planner waits when it is ahead of the controller
+    private static final int BATCH = 256; // the number of updates the planner makes between checks of its budget
+
+    private final SharedQTable table; // the Q-Table both the controller and the planner update
+    private final double gamma; // value which modifies the Q-value calculation of each update
+    private final int planningSteps; // the number of planning updates made per real step
+    private final SplittableRandom random; // source of the transitions replayed, owned by the planning thread
+    private final long[] model; // next state << 32 | reward float bits of each state * 9 + action, or UNSEEN
+    private final int[] seen; // the state * 9 + action of every model entry taken so far, in order of first use
+    private final AtomicInteger seenCount = new AtomicInteger(); // the number of entries of seen which are published
+    private final AtomicLong steps = new AtomicLong(); // the number of real steps reported by the controller
+    private final AtomicLong updates = new AtomicLong(); // the number of planning updates made so far
+    private Thread planner; // the background planning thread, while started
+    private volatile boolean closed; // set once the planner should stop
+
+    /**
+     * Constructor for the DynaPlanner class. The planning thread is started by start().
+     *
+     * @param table (SharedQTable) the Q-Table the controller learns into, which the planner updates too
+     * @param gamma (Double) value which modifies the Q-Value calculation of each update, as in the controller
+     * @param planningSteps (Integer) the number of planning updates made per real step
+     * @param random (SplittableRandom) random stream owned by the planner
+     */
+    public DynaPlanner(SharedQTable table, double gamma, int planningSteps, SplittableRandom random) {
+        this.table = table;
+        this.gamma = gamma;
+        this.planningSteps = planningSteps;
+        this.random = random;
+        model = new long[table.getStates().size() * 9];
+        seen = new int[model.length];
+        Arrays.fill(model, UNSEEN);
+    }
+
+    public SharedQTable getTable() {
+        return table;
+    }
+
+    /**
+     * Method remembers the outcome of a real step, and allows the planner planningSteps more updates. Called on the
+     * thread of the controller only.
+     *
+     * @param state (Integer) the state the action was taken from
+     * @param action (Integer) the action, encoded as i * 3 + j
+     * @param nextState (Integer) the state the vehicle ended up in, after any collision was handled
+     * @param reward (Double) the reward of the step
+     */
+    public void observe(int state, int action, int nextState, double reward) {
+        int entry = state * 9 + action;
+        long previous = (long) MODEL.getOpaque(model, entry);
+        MODEL.setOpaque(model, entry, ((long) nextState << 32) | (Float.floatToRawIntBits((float) reward) & 0xffffffffL));
+        if (previous == UNSEEN) {
+            int count = seenCount.get();
+            seen[count] = entry;
+            seenCount.lazySet(count + 1); // publishes the entry to the planner
+        }
+        steps.lazySet(steps.get() + 1);
+    }
+
+    /**
+     * Method starts the background planning thread.
+     */
+    public void start() {
+        planner = new Thread(this::plan, "dyna-planner");
+        planner.setDaemon(true);
+        planner.start();
+    }
+
+    /**
+     * Method stops the planning thread, and waits for it to finish its current batch of updates.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (planner != null) {
+            LockSupport.unpark(planner);
+            try {
+                planner.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return the number of planning updates made so far
+     */
+    public long getUpdates() {
+        return updates.get();
+    }
+
+    /**
+     * @return the number of distinct states and actions the model holds a transition of
+     */
+    public int getTransitions() {
+        return seenCount.get();
+    }
+
+    /**
+     * Body of the planning thread: replays remembered transitions until closed, as long as it is within its budget.
+     */
+    private void plan() {
+        long made = 0;
+        while (!closed) {
+            int count = seenCount.get();
+            long budget = Math.min(BATCH, steps.get() * planningSteps - made);
+            if (count == 0 || budget <= 0) {
+                LockSupport.parkNanos(IDLE_NANOS);
+                continue;
+            }
+            for (int k = 0; k < budget; k++) {
+                int entry = seen[random.nextInt(count)];
+                long transition = (long) MODEL.getOpaque(model, entry);
+                int nextState = (int) (transition >> 32);
+                double reward = Float.intBitsToFloat((int) transition);
+
+                double max = table.get(nextState, 0);
+                for (int action = 1; action < 9; action++) {
+                    max = Math.max(max, table.get(nextState, action));
+                }
+                table.update(entry / 9, entry % 9, table.alpha(entry % 9), reward + (gamma * max));
+            }
+            made += budget;
+            updates.lazySet(made);
+        }
+    }
+}
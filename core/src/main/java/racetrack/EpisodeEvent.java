@@ -0,0 +1,42 @@
+package racetrack;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event recorded for every episode a QLearningController finishes; its duration is the wall time of the episode.
+ * Only recorded while Metrics.ENABLED is set.
+ */
+@Name("racetrack.Episode")
+@Label("Q-Learning Episode")
+@Category("Racetrack")
+@Description("One Q-learning episode, from a starting space to the finish line")
+public class EpisodeEvent extends Event {
+
+    @Label("Episode")
+    @Description("The number of episodes the controller finished before this one")
+    public long episode;
+
+    @Label("Steps")
+    @Description("The number of steps the vehicle took to reach the finish line")
+    public int steps;
+
+    @Label("Q-Updates")
+    @Description("The number of Q-Table updates made during the episode")
+    public int qUpdates;
+
+    @Label("Crashes")
+    @Description("The number of times the vehicle collided and was reset during the episode")
+    public int crashes;
+
+    @Label("Explored Actions")
+    @Description("The number of actions chosen at random during the episode")
+    public int explored;
+
+    @Label("Exploited Actions")
+    @Description("The number of actions chosen from the Q-Table during the episode")
+    public int exploited;
+}
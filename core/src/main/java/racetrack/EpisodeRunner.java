@@ -0,0 +1,93 @@
+package racetrack;
+
+import java.util.Arrays;
+
+/**
+ * Trains a single Q-learning controller over many episodes on one track. The track is parsed once and the controller,
+ * along with everything it has learned, is kept between episodes; only the vehicle is placed back on a starting space.
+ */
+public class EpisodeRunner {
+
+    private final Track track; // the track every episode is driven on
+    private final QLearningController controller; // the controller which learns across all episodes
+    private int[] steps = new int[0]; // the time the vehicle needed to finish each episode
+    private long[] nanos = new long[0]; // the wall time taken by each episode, in nanoseconds
+    private int episodes; // the number of episodes run so far
+
+    /**
+     * Constructor for the EpisodeRunner class.
+     *
+     * @param track (Track) the track every episode is driven on
+     * @param controller (QLearningController) a controller driving the vehicle of the track
+     */
+    public EpisodeRunner(Track track, QLearningController controller) {
+        this.track = track;
+        this.controller = controller;
+    }
+
+    /**
+     * Method runs a number of episodes, each until the vehicle reaches the finish line, recording the time and steps
+     * each one took. Calling the method again continues training where the previous call stopped.
+     *
+     * @param count (Integer) the number of episodes to run
+     */
+    public void run(int count) {
+        steps = Arrays.copyOf(steps, episodes + count);
+        nanos = Arrays.copyOf(nanos, episodes + count);
+        for (int i = 0; i < count; i++) {
+            if (episodes > 0) { // the first episode starts where the track placed the vehicle
+                track.newEpisode();
+                controller.beginEpisode();
+            }
+            long start = System.nanoTime();
+            controller.start();
+            nanos[episodes] = System.nanoTime() - start;
+            steps[episodes] = track.car.currentTime;
+            episodes++;
+        }
+    }
+
+    public int getEpisodes() {
+        return episodes;
+    }
+
+    /**
+     * @param episode (Integer) the index of an episode which has been run
+     * @return the time the vehicle needed to finish the episode
+     */
+    public int getSteps(int episode) {
+        return steps[episode];
+    }
+
+    /**
+     * @param episode (Integer) the index of an episode which has been run
+     * @return the wall time taken by the episode, in nanoseconds
+     */
+    public long getNanos(int episode) {
+        return nanos[episode];
+    }
+
+    /**
+     * @return the number of episodes completed per second of wall time, over every episode run so far
+     */
+    public double episodesPerSecond() {
+        long total = 0;
+        for (int i = 0; i < episodes; i++) {
+            total += nanos[i];
+        }
+        return total == 0 ? 0 : episodes / (total / 1e9);
+    }
+
+    /**
+     * Method prints the steps and wall time of every episode run so far, followed by the overall throughput.
+     */
+    public void printReport() {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < episodes; i++) {
+            out.append("Episode ").append(i + 1).append(": ").append(steps[i]).append(" steps, ")
+                    .append(String.format("%.3f", nanos[i] / 1e6)).append(" ms\n");
+        }
+        out.append(String.format("%d episodes, %.2f episodes per second%n", episodes, episodesPerSecond()));
+        System.out.print(out);
+    }
+}
@@ -0,0 +1,59 @@
+package racetrack;
+
+/**
+ * One combination of Q-learning hyperparameters evaluated by the ExperimentExecutor.
+ */
+public class ExperimentConfig {
+
+    private final double explorationChance; // probability the vehicle will choose an action at random
+    private final double gamma; // value which modifies the Q-value calculation after each step
+    private final boolean totalReset; // determines whether the vehicle returns to its origin upon a collision
+    private final double lambda; // decay of the eligibility traces, or 0 for one-step updates
+
+    /**
+     * Constructor for the ExperimentConfig class.
+     *
+     * @param explorationChance (Double) probability in range [0, 1] that the vehicle will choose a random action
+     * @param gamma (Double) value which modifies the Q-Value calculation after each step
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     */
+    public ExperimentConfig(double explorationChance, double gamma, boolean totalReset) {
+        this(explorationChance, gamma, totalReset, 0);
+    }
+
+    /**
+     * Constructor for the ExperimentConfig class, for controllers which learn from lambda-returns.
+     *
+     * @param explorationChance (Double) probability in range [0, 1] that the vehicle will choose a random action
+     * @param gamma (Double) value which modifies the Q-Value calculation after each step
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param lambda (Double) decay of the eligibility traces in range [0, 1], or 0 for one-step updates
+     */
+    public ExperimentConfig(double explorationChance, double gamma, boolean totalReset, double lambda) {
+        this.explorationChance = explorationChance;
+        this.gamma = gamma;
+        this.totalReset = totalReset;
+        this.lambda = lambda;
+    }
+
+    public double getExplorationChance() {
+        return explorationChance;
+    }
+
+    public double getGamma() {
+        return gamma;
+    }
+
+    public boolean isTotalReset() {
+        return totalReset;
+    }
+
+    public double getLambda() {
+        return lambda;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("epsilon=%.3f gamma=%.3f totalReset=%b lambda=%.2f", explorationChance, gamma, totalReset, lambda);
+    }
+}
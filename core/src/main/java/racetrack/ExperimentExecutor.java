@@ -0,0 +1,155 @@
+package racetrack;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs a grid of Q-learning experiments in parallel. Every (track, configuration, run) cell of the grid is an
+ * independent job with its own copy of the track and its own controller, trained over a number of episodes on a
+ * bounded pool of threads. As soon as every run of a (track, configuration) pair has finished, the pair is aggregated
+ * into an ExperimentResult and handed to the caller. Every job draws from its own random stream, split from a master
+ * seed, so jobs never contend on shared state and a whole grid can be reproduced exactly.
+ */
+public class ExperimentExecutor {
+
+    private final int threads; // the number of jobs run at the same time
+
+    /**
+     * Constructor for the ExperimentExecutor class.
+     *
+     * @param threads (Integer) the number of jobs run at the same time
+     */
+    public ExperimentExecutor(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Outcome of a single job.
+     */
+    private static class Run {
+        private final int cell; // the index of the (track, configuration) pair of the job
+        private final int time; // the time the vehicle needed to finish the last episode
+        private final long wallNanos; // the wall time of the job, in nanoseconds
+
+        private Run(int cell, int time, long wallNanos) {
+            this.cell = cell;
+            this.time = time;
+            this.wallNanos = wallNanos;
+        }
+    }
+
+    /**
+     * Method runs every combination of track, configuration and run, then blocks until all of them have finished.
+     * Results are streamed to the provided consumer on the calling thread, one per (track, configuration) pair, in
+     * order of completion.
+     *
+     * @param trackFiles (List of Strings) the file names of the tracks
+     * @param configs (List of ExperimentConfigs) the configurations to evaluate on every track
+     * @param runs (Integer) the number of independent runs of every configuration on every track
+     * @param episodes (Integer) the number of training episodes of every run
+     * @param seed (Long) the master seed every job's random stream is derived from
+     * @param results (Consumer of ExperimentResults) receives the aggregated result of every pair
+     * @throws IOException Throws an IOException if one of the tracks cannot be read properly.
+     */
+    public void run(List<String> trackFiles, List<ExperimentConfig> configs, int runs, int episodes, long seed,
+                    Consumer<ExperimentResult> results) throws IOException {
+        // every track is parsed and compiled once, then copied by each of its jobs
+        List<Track> tracks = new ArrayList<>();
+        for (String trackFile : trackFiles) {
+            Track track = new Track(trackFile);
+            track.openSpaceIndex();
+            track.rewardMatrix();
+            tracks.add(track);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CompletionService<Run> completions = new ExecutorCompletionService<>(pool);
+            SplittableRandom master = new SplittableRandom(seed); // split in submission order, so jobs are reproducible
+            int cells = tracks.size() * configs.size();
+            for (int cell = 0; cell < cells; cell++) {
+                Track track = tracks.get(cell / configs.size());
+                ExperimentConfig config = configs.get(cell % configs.size());
+                int index = cell;
+                for (int run = 0; run < runs; run++) {
+                    SplittableRandom random = master.split();
+                    completions.submit(() -> runJob(index, track, config, episodes, random));
+                }
+            }
+
+            // aggregate on this thread only, so the jobs share nothing mutable
+            int[][] times = new int[cells][runs];
+            long[][] wallNanos = new long[cells][runs];
+            int[] finished = new int[cells];
+            for (int job = 0; job < cells * runs; job++) {
+                Run run = completions.take().get();
+                times[run.cell][finished[run.cell]] = run.time;
+                wallNanos[run.cell][finished[run.cell]] = run.wallNanos;
+                if (++finished[run.cell] == runs) {
+                    results.accept(new ExperimentResult(trackFiles.get(run.cell / configs.size()),
+                            configs.get(run.cell % configs.size()), times[run.cell], wallNanos[run.cell]));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("An experiment failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Method trains a fresh controller on a private copy of a track.
+     */
+    private static Run runJob(int cell, Track template, ExperimentConfig config, int episodes, SplittableRandom random) {
+        long start = System.nanoTime();
+        Track track = new Track(template, random.split());
+        QLearningController controller = new QLearningController(track, null, config.getExplorationChance(),
+                config.getGamma(), config.getLambda(), config.isTotalReset(), NullTelemetrySink.INSTANCE, random.split());
+        new EpisodeRunner(track, controller).run(episodes);
+        return new Run(cell, track.car.currentTime, System.nanoTime() - start);
+    }
+
+    /**
+     * Method evaluates a default grid of configurations on the provided tracks, printing one row per result.
+     *
+     * @param args (String Array) the file names of the tracks; a number among them is used as the master seed
+     */
+    public static void main(String[] args) throws IOException {
+        Metrics.startExportFromProperties(); // only when started with -Dracetrack.metrics=true
+        List<ExperimentConfig> configs = new ArrayList<>();
+        for (double explorationChance : new double[] {0.05, 0.1, 0.2}) {
+            for (double gamma : new double[] {0.8, 0.9, 0.99}) {
+                for (boolean totalReset : new boolean[] {true, false}) {
+                    for (double lambda : new double[] {0, 0.9}) {
+                        configs.add(new ExperimentConfig(explorationChance, gamma, totalReset, lambda));
+                    }
+                }
+            }
+        }
+
+        List<String> trackFiles = new ArrayList<>();
+        long seed = System.nanoTime();
+        for (String arg : args) {
+            if (arg.matches("-?\\d+")) {
+                seed = Long.parseLong(arg);
+            } else {
+                trackFiles.add(arg);
+            }
+        }
+
+        System.out.println("Seed: " + seed);
+        System.out.println(ExperimentResult.header());
+        new ExperimentExecutor(Runtime.getRuntime().availableProcessors())
+                .run(trackFiles, configs, 10, 50, seed, System.out::println);
+    }
+}
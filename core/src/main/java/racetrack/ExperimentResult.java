@@ -0,0 +1,119 @@
+package racetrack;
+
+import java.util.Arrays;
+
+/**
+ * Aggregated outcome of every run of one configuration on one track: statistics over the time the vehicle needed to
+ * finish the last training episode of each run, along with the wall time the runs took.
+ */
+public class ExperimentResult {
+
+    private final String trackFile; // the track the runs were made on
+    private final ExperimentConfig config; // the configuration of the runs
+    private final int runs; // the number of runs aggregated
+    private final double mean; // mean of the final episode times
+    private final double variance; // sample variance of the final episode times
+    private final int median; // 50th percentile of the final episode times
+    private final int p90; // 90th percentile of the final episode times
+    private final int p99; // 99th percentile of the final episode times
+    private final double meanWallMillis; // mean wall time of a run, in milliseconds
+
+    /**
+     * Constructor for the ExperimentResult class. Computes the statistics of the provided runs.
+     *
+     * @param trackFile (String) the track the runs were made on
+     * @param config (ExperimentConfig) the configuration of the runs
+     * @param times (Integer Array) the time the vehicle needed to finish the last episode of each run
+     * @param wallNanos (Long Array) the wall time of each run, in nanoseconds
+     */
+    public ExperimentResult(String trackFile, ExperimentConfig config, int[] times, long[] wallNanos) {
+        this.trackFile = trackFile;
+        this.config = config;
+        runs = times.length;
+
+        double total = 0;
+        for (int time : times) {
+            total += time;
+        }
+        mean = total / runs;
+        double squares = 0;
+        for (int time : times) {
+            squares += (time - mean) * (time - mean);
+        }
+        variance = runs > 1 ? squares / (runs - 1) : 0;
+
+        int[] sorted = times.clone();
+        Arrays.sort(sorted);
+        median = percentile(sorted, 50);
+        p90 = percentile(sorted, 90);
+        p99 = percentile(sorted, 99);
+
+        long wall = 0;
+        for (long nanos : wallNanos) {
+            wall += nanos;
+        }
+        meanWallMillis = wall / 1e6 / runs;
+    }
+
+    /**
+     * Method selects a percentile of sorted values using the nearest-rank method.
+     *
+     * @param sorted (Integer Array) values in ascending order
+     * @param percent (Integer) the percentile, in the range [0, 100]
+     * @return the value at the percentile
+     */
+    private static int percentile(int[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    public String getTrackFile() {
+        return trackFile;
+    }
+
+    public ExperimentConfig getConfig() {
+        return config;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getVariance() {
+        return variance;
+    }
+
+    public int getMedian() {
+        return median;
+    }
+
+    public int getP90() {
+        return p90;
+    }
+
+    public int getP99() {
+        return p99;
+    }
+
+    public double getMeanWallMillis() {
+        return meanWallMillis;
+    }
+
+    /**
+     * @return the column titles matching toString()
+     */
+    public static String header() {
+        return String.format("%-24s %-56s %5s %10s %12s %7s %7s %7s %10s", "track", "config", "runs", "mean",
+                "variance", "p50", "p90", "p99", "wall ms");
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-24s %-56s %5d %10.2f %12.2f %7d %7d %7d %10.2f", trackFile, config, runs, mean,
+                variance, median, p90, p99, meanWallMillis);
+    }
+}
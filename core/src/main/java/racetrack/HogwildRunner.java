@@ -0,0 +1,123 @@
+package racetrack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Trains one SharedQTable with several Q-learning controllers at once. Every actor drives its own copy of the track on
+ * its own thread, with its own random streams, and learns into the shared table, so the number of Q-updates made per
+ * second grows with the number of cores instead of being bounded by the step rate of a single vehicle. As the actors
+ * race on the table, a run cannot be reproduced exactly from its seed.
+ */
+public class HogwildRunner {
+
+    private final SharedQTable table; // the Q-Table every actor learns into
+    private final Track[] tracks; // the copy of the track driven by each actor
+    private final QLearningController[] controllers; // the controller of each actor
+    private final boolean[] started; // whether each actor has run its first episode
+    private long episodes; // the number of episodes run so far, by every actor
+    private long steps; // the number of steps taken so far, by every actor
+    private long nanos; // the wall time spent in run() so far, in nanoseconds
+
+    /**
+     * Constructor for the HogwildRunner class.
+     *
+     * @param track (Track) the track every actor drives a copy of
+     * @param actors (Integer) the number of actors, each of which runs on its own thread
+     * @param explorationChance (Double) probability in range [0, 1] that a vehicle will choose a random action
+     * @param gamma (Double) value which modifies the Q-Value calculation after each step
+     * @param totalReset (Boolean) state determining whether a vehicle will return to origin upon collision
+     * @param seed (Long) the master seed every actor's random streams are split from
+     */
+    public HogwildRunner(Track track, int actors, double explorationChance, double gamma, boolean totalReset, long seed) {
+        table = new SharedQTable(track.stateIndex()); // built once, then shared by every copy
+        tracks = new Track[actors];
+        controllers = new QLearningController[actors];
+        started = new boolean[actors];
+        track.openSpaceIndex(); // built once, then shared by every copy
+        track.rewardMatrix();
+        SplittableRandom master = new SplittableRandom(seed);
+        for (int actor = 0; actor < actors; actor++) {
+            tracks[actor] = new Track(track, master.split());
+            controllers[actor] = new QLearningController(tracks[actor], table, explorationChance, gamma, totalReset,
+                    NullTelemetrySink.INSTANCE, master.split());
+        }
+    }
+
+    /**
+     * Method runs a number of episodes on every actor at the same time, then blocks until all of them have finished.
+     * Calling the method again continues training where the previous call stopped.
+     *
+     * @param episodesPerActor (Integer) the number of episodes each actor runs
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the actors
+     */
+    public void run(int episodesPerActor) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(controllers.length);
+        long start = System.nanoTime();
+        try {
+            List<Future<Long>> actors = new ArrayList<>();
+            for (int actor = 0; actor < controllers.length; actor++) {
+                int index = actor;
+                actors.add(pool.submit(() -> runActor(index, episodesPerActor)));
+            }
+            for (Future<Long> actor : actors) {
+                steps += actor.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("an actor failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        nanos += System.nanoTime() - start;
+        episodes += (long) episodesPerActor * controllers.length;
+    }
+
+    /**
+     * Method runs the episodes of a single actor, as EpisodeRunner does.
+     *
+     * @return the number of steps taken by the actor
+     */
+    private long runActor(int actor, int count) {
+        long taken = 0;
+        for (int i = 0; i < count; i++) {
+            if (started[actor]) { // the first episode starts where the track placed the vehicle
+                tracks[actor].newEpisode();
+                controllers[actor].beginEpisode();
+            }
+            started[actor] = true;
+            controllers[actor].start();
+            taken += tracks[actor].car.currentTime;
+        }
+        return taken;
+    }
+
+    public SharedQTable getTable() {
+        return table;
+    }
+
+    /**
+     * @return the number of episodes run so far, by every actor
+     */
+    public long getEpisodes() {
+        return episodes;
+    }
+
+    /**
+     * @return the number of steps taken so far, by every actor
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return the number of steps taken per second of wall time, by every actor together
+     */
+    public double stepsPerSecond() {
+        return nanos == 0 ? 0 : steps / (nanos / 1e9);
+    }
+}
@@ -0,0 +1,244 @@
+package racetrack;
+
+/**
+ * Keeps a value table converged while the board it was solved for is edited, such as when a shortcut is opened or an
+ * obstacle is added. Rather than solving the edited board from the reward matrix again, only the spaces an edit can
+ * affect are checked, and changes are propagated outwards from them in place, in order of how much they may still
+ * change, as ValueIteration.solvePrioritized() does. A small edit to a large board only revisits the spaces whose
+ * values it actually moves.
+ * <p>
+ * Compiling a TransitionModel of the edited board would take longer than propagating a small edit, so backups are
+ * computed from the board itself, with the same stencil and summation order as TransitionModel.compileSpaces(): the
+ * values are identical to a backup over the compiled model.
+ */
+public class IncrementalValueIteration {
+
+    private static final double[] PREDECESSOR_WEIGHTS = predecessorWeights(); // see predecessorWeights()
+
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final byte[] spaces; // the type of each space of the edited board, indexed by x * ySize + y
+    private final double gamma; // constant which modifies the impact of look-ahead spaces
+    private final double[] values; // the value of each space, indexed by x * ySize + y
+    private final double[] bounds; // upper bound of the Bellman error of each space, while it is queued
+    private final IndexedMaxHeap queue; // the spaces whose error bound exceeds the threshold, ordered by that bound
+    private IntQueue edited = new IntQueue(16); // the spaces edited since the last resolve()
+    private long backups; // the number of Bellman backups performed so far
+
+    /**
+     * Constructor for the IncrementalValueIteration class.
+     *
+     * @param board (Board) the game board the values were solved for
+     * @param values (2D Double Array) the converged value of each space of the board, indexed [x][y], such as the
+     *               result of ValueIteration.solve(); it is copied
+     * @param gamma (Double) constant between in the range [0, 1] which modifies the impact of look-ahead spaces
+     */
+    public IncrementalValueIteration(Board board, double[][] values, double gamma) {
+        this.gamma = gamma;
+        xSize = board.getXSize();
+        ySize = board.getYSize();
+        spaces = TransitionModel.classify(board);
+        this.values = new double[xSize * ySize];
+        for (int x = 0; x < xSize; x++) {
+            System.arraycopy(values[x], 0, this.values, x * ySize, ySize);
+        }
+        bounds = new double[xSize * ySize];
+        queue = new IndexedMaxHeap(xSize * ySize);
+    }
+
+    /**
+     * Method which updates the action value of every space after a track board has been edited.
+     *
+     * @param before (2D Character Array) ASCII representation of the game board the values were generated for
+     * @param after (2D Character Array) ASCII representation of the edited game board, of the same size
+     * @param values (2D Double Array) the converged value of each space of the board before the edit, indexed [x][y]
+     * @param threshold (Double) difference threshold which determines when the action values have converged
+     * @param gamma (Double) constant between in the range [0, 1] which modifies the impact of look-ahead spaces
+     * @return a 2D array of doubles indicating the action value of each space on the edited board
+     */
+    public static double[][] regenerate(char[][] before, char[][] after, double[][] values, double threshold, double gamma) {
+        IncrementalValueIteration solver = new IncrementalValueIteration(Board.of(before), values, gamma);
+        for (int x = 0; x < after.length; x++) {
+            for (int y = 0; y < after[x].length; y++) {
+                if (before[x][y] != after[x][y]) {
+                    solver.edit(x, y, after[x][y]);
+                }
+            }
+        }
+        return solver.resolve(threshold);
+    }
+
+    /**
+     * Method changes a space of the board; the values are brought up to date by the next call to resolve(). A space
+     * which becomes a wall loses its value, as walls are never updated.
+     *
+     * @param x (Integer) the x coordinate of the space
+     * @param y (Integer) the y coordinate of the space
+     * @param space (Character) the new space: '#' for a wall, '.' for an open space, 'S' for a starting space or 'F'
+     *              for a finish space
+     */
+    public void edit(int x, int y, char space) {
+        switch (space) {
+            case '#': spaces[x * ySize + y] = TransitionModel.WALL; break;
+            case 'S': spaces[x * ySize + y] = TransitionModel.START; break;
+            case 'F': spaces[x * ySize + y] = TransitionModel.FINISH; break;
+            default: spaces[x * ySize + y] = TransitionModel.OPEN;
+        }
+        if (space == '#') {
+            values[x * ySize + y] = 0;
+        }
+        edited.add(x * ySize + y);
+    }
+
+    /**
+     * Method brings the values up to date with every edit made since the last call. Only the spaces whose Bellman
+     * equation an edit can change, those within two spaces of an edited space, are checked up front; the changes are
+     * then propagated until no space can change by more than the threshold, the guarantee ValueIteration.solve() gives.
+     *
+     * @param threshold (Double) difference threshold which determines when the action values have converged
+     * @return a 2D array of doubles indicating the action value of each space on the edited board
+     */
+    public double[][] resolve(double threshold) {
+        while (!edited.isEmpty()) {
+            int space = edited.remove();
+            int xEdited = space / ySize;
+            int yEdited = space % ySize;
+            // an action from (x, y) reads the spaces up to two away: the space it moves towards, and its neighbours
+            for (int x = Math.max(0, xEdited - 2); x <= Math.min(xSize - 1, xEdited + 2); x++) {
+                for (int y = Math.max(0, yEdited - 2); y <= Math.min(ySize - 1, yEdited + 2); y++) {
+                    check(x * ySize + y, threshold);
+                }
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int space = queue.poll();
+            double value = bestValue(space / ySize, space % ySize);
+            double change = Math.abs(value - values[space]);
+            values[space] = value;
+            bounds[space] = 0;
+            backups++;
+
+            // a space reached with probability p can move the backup of its predecessor by at most gamma * p * change
+            int xSpace = space / ySize;
+            int ySpace = space % ySize;
+            for (int dx = -2; dx <= 2; dx++) {
+                for (int dy = -2; dy <= 2; dy++) {
+                    int x = xSpace + dx;
+                    int y = ySpace + dy;
+                    double weight = PREDECESSOR_WEIGHTS[(dx + 2) * 5 + dy + 2];
+                    if (weight > 0 && x >= 0 && x < xSize && y >= 0 && y < ySize && spaces[x * ySize + y] != TransitionModel.WALL) {
+                        bounds[x * ySize + y] += gamma * weight * change;
+                        if (bounds[x * ySize + y] > threshold) {
+                            queue.set(x * ySize + y, bounds[x * ySize + y]);
+                        }
+                    }
+                }
+            }
+        }
+        return table();
+    }
+
+    /**
+     * Method computes the Bellman error of a space, and queues the space if it exceeds the threshold.
+     */
+    private void check(int space, double threshold) {
+        if (spaces[space] == TransitionModel.WALL) {
+            return;
+        }
+        double error = Math.abs(bestValue(space / ySize, space % ySize) - values[space]);
+        backups++;
+        if (error > bounds[space]) {
+            bounds[space] = error;
+            if (error > threshold) {
+                queue.set(space, error);
+            }
+        }
+    }
+
+    /**
+     * Method calculates the largest expected action value available from a space: the reward of the space, plus the
+     * discounted value around (x + i, y + i), over every x acceleration i with at least one viable space to move into.
+     */
+    private double bestValue(int x, int y) {
+        double reward = spaces[x * ySize + y] == TransitionModel.FINISH ? 1 : 0;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = -1; i <= 1; i++) {
+            boolean viable = false; // every viable y acceleration leads to the same value
+            for (int j = -1; j <= 1; j++) {
+                viable |= spaceAt(x + i, y + j) != TransitionModel.WALL;
+            }
+            if (!viable) {
+                continue;
+            }
+            double total = 0;
+            for (int k = -1; k <= 1; k++) {
+                for (int l = -1; l <= 1; l++) {
+                    int xk = x + i + k;
+                    int yl = y + i + l;
+                    if (!(xk >= xSize || xk < 0 || yl >= ySize || yl < 0)) {
+                        total += (k != 0 || l != 0 ? 0.1 : 0.2) * values[xk * ySize + yl];
+                    }
+                }
+            }
+            max = Math.max(max, reward + (gamma * total));
+        }
+        return max;
+    }
+
+    private byte spaceAt(int x, int y) {
+        if (x >= xSize || x < 0 || y >= ySize || y < 0) {
+            return TransitionModel.WALL;
+        }
+        return spaces[x * ySize + y];
+    }
+
+    /**
+     * Method computes, for every offset (dx, dy) in [-2, 2] from a space to a space which may depend on it, the largest
+     * probability with which an action of the latter reaches the former; zero where no action does. An action with x
+     * acceleration i reaches the spaces (x + i + k, y + i + l), with probability 0.2 at k = l = 0 and 0.1 otherwise.
+     *
+     * @return the weights, indexed by (dx + 2) * 5 + dy + 2
+     */
+    private static double[] predecessorWeights() {
+        double[] weights = new double[25];
+        for (int i = -1; i <= 1; i++) {
+            for (int k = -1; k <= 1; k++) {
+                for (int l = -1; l <= 1; l++) {
+                    int offset = (-i - k + 2) * 5 + (-i - l + 2); // from the space reached back to the one acting
+                    weights[offset] = Math.max(weights[offset], k != 0 || l != 0 ? 0.1 : 0.2);
+                }
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * @param x (Integer) the x coordinate of the space
+     * @param y (Integer) the y coordinate of the space
+     * @return the current value of the space
+     */
+    public double valueAt(int x, int y) {
+        return values[x * ySize + y];
+    }
+
+    /**
+     * @return the number of Bellman backups performed so far
+     */
+    public long getBackups() {
+        return backups;
+    }
+
+    /**
+     * Method copies the value table into a 2D array.
+     *
+     * @return a 2D array of doubles indicating the action value of each space on the board
+     */
+    private double[][] table() {
+        double[][] table = new double[xSize][ySize];
+        for (int x = 0; x < xSize; x++) {
+            System.arraycopy(values, x * ySize, table[x], 0, ySize);
+        }
+        return table;
+    }
+}
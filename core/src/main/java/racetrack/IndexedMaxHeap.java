@@ -0,0 +1,143 @@
+package racetrack;
+
+import java.util.Arrays;
+
+/**
+ * Binary max-heap of state indices ordered by a double priority. Each state appears at most once, and the priority of
+ * a queued state can be raised or lowered in place, so no objects are allocated once the heap has been built.
+ */
+public class IndexedMaxHeap {
+    private final int[] heap; // the queued states, in heap order
+    private final int[] positions; // the position of each state within the heap, or -1 if it is not queued
+    private final double[] priorities; // the priority of each queued state
+    private int size; // the number of queued states
+
+    /**
+     * Constructor for the IndexedMaxHeap class.
+     *
+     * @param states (Integer) the number of states which may be queued, indexed from 0
+     */
+    public IndexedMaxHeap(int states) {
+        heap = new int[states];
+        positions = new int[states];
+        priorities = new double[states];
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int state) {
+        return positions[state] >= 0;
+    }
+
+    /**
+     * @param state (Integer) a queued state
+     * @return the priority of the state
+     */
+    public double priorityOf(int state) {
+        return priorities[state];
+    }
+
+    /**
+     * @return the largest priority of any queued state
+     */
+    public double peekPriority() {
+        return priorities[heap[0]];
+    }
+
+    /**
+     * Method queues a state with the provided priority, or changes its priority if it is already queued.
+     *
+     * @param state (Integer) the state
+     * @param priority (Double) the new priority of the state
+     */
+    public void set(int state, double priority) {
+        int position = positions[state];
+        if (position < 0) {
+            position = size++;
+            heap[position] = state;
+            positions[state] = position;
+            priorities[state] = priority;
+            siftUp(position);
+        } else if (priority > priorities[state]) {
+            priorities[state] = priority;
+            siftUp(position);
+        } else {
+            priorities[state] = priority;
+            siftDown(position);
+        }
+    }
+
+    /**
+     * Method removes and returns the state with the largest priority.
+     *
+     * @return the removed state
+     */
+    public int poll() {
+        int state = heap[0];
+        removeAt(0);
+        return state;
+    }
+
+    /**
+     * Method removes a state from the heap if it is queued.
+     *
+     * @param state (Integer) the state
+     */
+    public void remove(int state) {
+        if (positions[state] >= 0) {
+            removeAt(positions[state]);
+        }
+    }
+
+    private void removeAt(int position) {
+        int removed = heap[position];
+        positions[removed] = -1;
+        if (--size == position) {
+            return;
+        }
+        int last = heap[size];
+        heap[position] = last;
+        positions[last] = position;
+        siftDown(position);
+        siftUp(positions[last]);
+    }
+
+    private void siftUp(int position) {
+        int state = heap[position];
+        double priority = priorities[state];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (priorities[heap[parent]] >= priority) {
+                break;
+            }
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = state;
+        positions[state] = position;
+    }
+
+    private void siftDown(int position) {
+        int state = heap[position];
+        double priority = priorities[state];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && priorities[heap[child + 1]] > priorities[heap[child]]) {
+                child++;
+            }
+            if (priorities[heap[child]] <= priority) {
+                break;
+            }
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = state;
+        positions[state] = position;
+    }
+}
@@ -0,0 +1,62 @@
+package racetrack;
+
+import java.util.Arrays;
+
+/**
+ * First-in first-out queue of primitive integers, held in a ring buffer which doubles in size whenever it fills up.
+ */
+public class IntQueue {
+
+    private int[] elements; // the ring buffer; its length is always a power of two
+    private int head; // position of the next element to be removed
+    private int size; // the number of queued elements
+
+    /**
+     * Constructor for the IntQueue class.
+     *
+     * @param capacity (Integer) the number of elements the queue holds before it first grows
+     */
+    public IntQueue(int capacity) {
+        elements = new int[Integer.highestOneBit(Math.max(2, capacity - 1)) << 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param element (Integer) the element added to the back of the queue
+     */
+    public void add(int element) {
+        if (size == elements.length) {
+            // unwrap the buffer into one twice as large
+            int[] grown = Arrays.copyOfRange(elements, head, head + elements.length * 2);
+            System.arraycopy(elements, 0, grown, elements.length - head, head);
+            elements = grown;
+            head = 0;
+        }
+        elements[(head + size++) & (elements.length - 1)] = element;
+    }
+
+    /**
+     * @return the element removed from the front of the queue, which must not be empty
+     */
+    public int remove() {
+        int element = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return element;
+    }
+
+    /**
+     * Method removes every element from the queue, keeping its capacity.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
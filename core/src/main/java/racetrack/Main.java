@@ -0,0 +1,38 @@
+package racetrack;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+public class Main {
+
+    public static void main(String[] args) {
+        try {
+            Metrics.startExportFromProperties(); // only when started with -Dracetrack.metrics=true
+
+            // an optional second argument seeds every random stream, making the run reproducible
+            SplittableRandom random = args.length > 1 ? new SplittableRandom(Long.parseLong(args[1])) : new SplittableRandom();
+
+            // the track is parsed once, and the controller keeps what it learns from one episode to the next
+            Track track = new Track(args[0], random.split());
+            track.printTrack();
+
+            // with -Dracetrack.trajectory=file, every step is recorded for TrajectoryReader instead of being printed
+            String trajectory = System.getProperty("racetrack.trajectory");
+            TelemetrySink telemetry = trajectory != null ? new TrajectoryRecorder(track, Path.of(trajectory))
+                    : new ConsoleTelemetrySink(track, 1);
+            QLearningController qLearningController = new QLearningController(track, 0.1, 0.8,  true,
+                    telemetry, random.split());
+            EpisodeRunner runner = new EpisodeRunner(track, qLearningController);
+            runner.run(100);
+
+            //ValueController valueController = new ValueController(track, ValueIteration.generate(track.board, 0.01, 1), false);
+            //valueController.start();
+
+            telemetry.close();
+            runner.printReport();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package racetrack;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process registry of named counters, gauges and histograms, along with the JFR events, measured on the hot paths
+ * of training and solving. Collection is switched on by starting the JVM with -Dracetrack.metrics=true. Every
+ * measurement is guarded by ENABLED, a static final constant, so when collection is off the JIT removes the guarded
+ * code entirely. A snapshot of the registry can be appended to a file periodically, see startExport().
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("racetrack.metrics"); // whether anything is collected
+
+    private static final Map<String, Object> REGISTRY = new ConcurrentSkipListMap<>(); // every metric, by name
+    private static ScheduledExecutorService exporter; // appends snapshots to the export file, if started
+
+    private Metrics() {
+    }
+
+    /**
+     * @param name (String) the name of the counter
+     * @return the counter with the name, registered on first use
+     */
+    public static Counter counter(String name) {
+        return (Counter) REGISTRY.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * @param name (String) the name of the gauge
+     * @return the gauge with the name, registered on first use
+     */
+    public static Gauge gauge(String name) {
+        return (Gauge) REGISTRY.computeIfAbsent(name, key -> new Gauge());
+    }
+
+    /**
+     * @param name (String) the name of the histogram
+     * @return the histogram with the name, registered on first use
+     */
+    public static Histogram histogram(String name) {
+        return (Histogram) REGISTRY.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Method renders every registered metric, one per line and in order of name, as
+     * "time name counter value", "time name gauge value" or
+     * "time name histogram count mean p50 p90 p99 max".
+     *
+     * @param time (Long) the time stamp written at the start of each line, in milliseconds since the epoch
+     * @return the rendered snapshot
+     */
+    public static String snapshot(long time) {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Object> entry : REGISTRY.entrySet()) {
+            out.append(time).append(' ').append(entry.getKey()).append(' ');
+            Object metric = entry.getValue();
+            if (metric instanceof Counter) {
+                out.append("counter ").append(((Counter) metric).get());
+            } else if (metric instanceof Gauge) {
+                out.append("gauge ").append(((Gauge) metric).get());
+            } else {
+                Histogram histogram = (Histogram) metric;
+                out.append("histogram ").append(histogram.count()).append(' ').append(histogram.mean())
+                        .append(' ').append(histogram.percentile(0.5)).append(' ').append(histogram.percentile(0.9))
+                        .append(' ').append(histogram.percentile(0.99)).append(' ').append(histogram.max());
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Method starts appending a snapshot of the registry to a file at a fixed period, on a daemon thread. A final
+     * snapshot is appended by stopExport(). Nothing is started while collection is disabled.
+     *
+     * @param fileName (String) the file snapshots are appended to
+     * @param periodMillis (Long) the time between two snapshots, in milliseconds
+     */
+    public static synchronized void startExport(String fileName, long periodMillis) {
+        if (!ENABLED || exporter != null) {
+            return;
+        }
+        exporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(() -> export(fileName), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> stopExport(fileName)));
+    }
+
+    /**
+     * Method starts the periodic export configured by system properties: snapshots are appended to the file named by
+     * racetrack.metrics.file, if set, every racetrack.metrics.period milliseconds (1000 by default).
+     */
+    public static void startExportFromProperties() {
+        String fileName = System.getProperty("racetrack.metrics.file");
+        if (fileName != null) {
+            startExport(fileName, Long.getLong("racetrack.metrics.period", 1000));
+        }
+    }
+
+    /**
+     * Method stops the periodic export, then appends one last snapshot.
+     *
+     * @param fileName (String) the file snapshots are appended to
+     */
+    public static synchronized void stopExport(String fileName) {
+        if (exporter == null) {
+            return;
+        }
+        exporter.shutdownNow();
+        exporter = null;
+        export(fileName);
+    }
+
+    private static void export(String fileName) {
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(fileName, true))) {
+            out.write(snapshot(System.currentTimeMillis()));
+        } catch (IOException e) {
+            e.printStackTrace(); // a failed snapshot must not stop later ones
+        }
+    }
+
+    /**
+     * Monotonic count of events, which many threads may add to without contention.
+     */
+    public static final class Counter {
+        private final LongAdder count = new LongAdder();
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public long get() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * The most recent value of a measurement.
+     */
+    public static final class Gauge {
+        private final AtomicLong bits = new AtomicLong(); // the value, as Double.doubleToRawLongBits()
+
+        public void set(double value) {
+            bits.lazySet(Double.doubleToRawLongBits(value));
+        }
+
+        public double get() {
+            return Double.longBitsToDouble(bits.get());
+        }
+    }
+
+    /**
+     * Distribution of non-negative values, counted in power-of-two buckets: bucket k holds the values in
+     * [2^(k-1), 2^k), and bucket 0 holds zero. Percentiles are reported as the upper bound of the bucket they fall in,
+     * so they are accurate to within a factor of two.
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS]; // the number of values recorded in each bucket
+        private final LongAdder sum = new LongAdder(); // the sum of every value recorded
+        private final AtomicLong max = new AtomicLong(); // the largest value recorded
+
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * @param value (Long) the value recorded; negative values are recorded as zero
+         */
+        public void record(long value) {
+            value = Math.max(0, value);
+            buckets[BUCKETS - Long.numberOfLeadingZeros(value)].increment();
+            sum.add(value);
+            long previous;
+            while (value > (previous = max.get()) && !max.compareAndSet(previous, value)) {
+                // another thread raised the maximum in between; compare against its value
+            }
+        }
+
+        public long count() {
+            long count = 0;
+            for (LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        public double mean() {
+            long count = count();
+            return count == 0 ? 0 : (double) sum.sum() / count;
+        }
+
+        public long max() {
+            return max.get();
+        }
+
+        /**
+         * @param fraction (Double) the fraction of values at or below the percentile, in the range [0, 1]
+         * @return the upper bound of the bucket the percentile falls in, capped at the largest value recorded
+         */
+        public long percentile(double fraction) {
+            long[] counts = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                count += counts[i];
+            }
+            long rank = (long) Math.ceil(fraction * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank && counts[i] > 0) {
+                    return i == 0 ? 0 : Math.min(max.get(), i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+                }
+            }
+            return max.get();
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package racetrack;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Coarse-to-fine solver for large boards. The board is shrunk by FACTOR in each dimension, as many times as it stays at
+ * least MIN_SIZE spaces wide, and every level is compiled into its own model. A step on a coarse level stands for
+ * FACTOR steps on the level below it, so coarse levels are discounted by gamma^FACTOR, and the reward collected over
+ * those steps is 1 + gamma, which scales coarse values up to the level below.
+ * <p>
+ * Levels are solved from the coarsest up: each starts from the scaled values of the level above it, spread over its
+ * spaces. A good starting point alone saves few sweeps, as the error which takes the longest to die out is spread over
+ * the whole board, so each level is then solved with full approximation scheme (FAS) V-cycles: a few sweeps, after
+ * which the remaining error is estimated on the coarser levels, where it dies out in far fewer and far cheaper sweeps,
+ * and added back. The full board is solved under the same threshold as ValueIteration.solve(): the returned table is
+ * the result of a full-board sweep which changed no space by more than the threshold.
+ */
+public class MultigridValueIteration {
+
+    public static final int FACTOR = 2; // how many spaces of a level, in each dimension, make up a space of the next coarser level
+    public static final int MIN_SIZE = 16; // no level is made narrower than this many spaces
+    private static final int PRE_SWEEPS = 3; // sweeps on a level before its error is estimated on the next coarser level
+    private static final int POST_SWEEPS = 1; // sweeps on a level after the error estimate is added back
+    private static final int COARSEST_SWEEPS = 20; // the most sweeps made on each visit to the coarsest level
+
+    private final ForkJoinPool pool; // the pool the sweeps of every level are executed on
+    private final Level[] levels; // the levels, from the full board to the coarsest
+    private long backups; // the number of Bellman backups performed so far, on every level
+
+    /**
+     * Constructor for the MultigridValueIteration class; sweeps are executed on the common fork-join pool.
+     *
+     * @param inputTable (2D Character Array) ASCII representation of the game board
+     * @param gamma (Double) constant between in the range [0, 1] which modifies the impact of look-ahead spaces
+     */
+    public MultigridValueIteration(char[][] inputTable, double gamma) {
+        this(Board.of(inputTable), gamma, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for the MultigridValueIteration class. Builds and compiles every level of the board.
+     *
+     * @param board (Board) the game board
+     * @param gamma (Double) constant between in the range [0, 1] which modifies the impact of look-ahead spaces
+     * @param pool (ForkJoinPool) the pool the row bands of each sweep are executed on
+     */
+    public MultigridValueIteration(Board board, double gamma, ForkJoinPool pool) {
+        this.pool = pool;
+        int count = 1;
+        for (int size = Math.min(board.getXSize(), board.getYSize()); size >= FACTOR * MIN_SIZE; size = (size + FACTOR - 1) / FACTOR) {
+            count++;
+        }
+        levels = new Level[count];
+        for (int level = 0; level < count; level++) {
+            levels[level] = new Level(TransitionModel.compileSpaces(board), gamma, pool);
+            board = Board.of(coarsen(board));
+            gamma = Math.pow(gamma, FACTOR);
+        }
+    }
+
+    /**
+     * Method which generates the action value of every space on a provided track board, see ValueIteration.generate().
+     *
+     * @param inputTable (2D Character Array) ASCII representation of the game board
+     * @param threshold (Double) difference threshold which determines when the action values have converged
+     * @param gamma (Double) constant between in the range [0, 1] which modifies the impact of look-ahead spaces
+     * @return a 2D array of doubles indicating the action value of each space on the board
+     */
+    public static double[][] generate(char[][] inputTable, double threshold, double gamma) {
+        return new MultigridValueIteration(inputTable, gamma).solve(threshold);
+    }
+
+    /**
+     * Method solves every level, from the coarsest to the full board, until a sweep of the full board no longer changes
+     * any space by more than the provided threshold.
+     *
+     * @param threshold (Double) difference threshold which determines when the action values have converged
+     * @return a 2D array of doubles indicating the action value of each space on the board
+     */
+    public double[][] solve(double threshold) {
+        for (int level = levels.length - 1; level >= 0; level--) {
+            if (level < levels.length - 1) {
+                levels[level].prolong(levels[level + 1], 1 + levels[level].gamma);
+            }
+            while (cycle(level, threshold) > threshold) {
+                // each cycle ends with a sweep of the level, whose largest change decides convergence
+            }
+        }
+        return levels[0].table();
+    }
+
+    public long getBackups() {
+        return backups;
+    }
+
+    public int getLevels() {
+        return levels.length;
+    }
+
+    /**
+     * Method runs one V-cycle from a level down to the coarsest. The error left after a few sweeps of the level is
+     * estimated by solving the coarser level against the residual of this one, then added back to this level.
+     *
+     * @param level (Integer) the index of the level
+     * @param threshold (Double) difference threshold which determines when the action values have converged
+     * @return the largest change made by the last sweep of the level
+     */
+    private double cycle(int level, double threshold) {
+        Level fine = levels[level];
+        double residual = 0;
+        if (level == levels.length - 1) { // the coarsest level is only ever swept a few times, or until it settles
+            for (int sweep = 0; sweep < COARSEST_SWEEPS && (residual = sweep(fine)) > threshold; sweep++) {
+                // keep sweeping
+            }
+            return residual;
+        }
+
+        for (int sweep = 0; sweep < PRE_SWEEPS; sweep++) {
+            if ((residual = sweep(fine)) <= threshold) {
+                return residual;
+            }
+        }
+
+        // the difference made by the last sweep is the residual of the table before it; the coarse level is given the
+        // averaged table and residual, with the source which makes the averaged table its own fixed point, plus the
+        // residual, scaled up to a coarse step
+        Level coarse = levels[level + 1];
+        coarse.restrict(fine);
+        coarse.setSource(1 + fine.gamma);
+        cycle(level + 1, threshold);
+        fine.correct(coarse);
+
+        for (int sweep = 0; sweep < POST_SWEEPS; sweep++) {
+            residual = sweep(fine);
+        }
+        return residual;
+    }
+
+    private double sweep(Level level) {
+        backups += level.activeSpaces;
+        return level.sweep(pool);
+    }
+
+    /**
+     * Method shrinks a board by FACTOR in each dimension. A block of spaces becomes a finish space if it holds any
+     * finish space, so the finish line never disappears; otherwise it becomes a wall only if more than half of it is
+     * wall, a starting space if it holds any starting space, and an open space if not. Blocks along the far edges may
+     * be cut short by the board.
+     *
+     * @param board (Board) the game board
+     * @return the coarse board
+     */
+    public static char[][] coarsen(Board board) {
+        int xSize = (board.getXSize() + FACTOR - 1) / FACTOR;
+        int ySize = (board.getYSize() + FACTOR - 1) / FACTOR;
+        char[][] coarse = new char[xSize][ySize];
+        for (int x = 0; x < xSize; x++) {
+            for (int y = 0; y < ySize; y++) {
+                int spaces = 0;
+                int walls = 0;
+                boolean start = false;
+                boolean finish = false;
+                for (int i = x * FACTOR; i < Math.min((x + 1) * FACTOR, board.getXSize()); i++) {
+                    for (int j = y * FACTOR; j < Math.min((y + 1) * FACTOR, board.getYSize()); j++) {
+                        char space = board.charAt(i, j);
+                        spaces++;
+                        walls += space == '#' ? 1 : 0;
+                        start |= space == 'S';
+                        finish |= space == 'F';
+                    }
+                }
+                coarse[x][y] = finish ? 'F' : 2 * walls > spaces ? '#' : start ? 'S' : '.';
+            }
+        }
+        return coarse;
+    }
+
+    /**
+     * One level of the board: its model, its value tables, and the source added to every backup, which is zero on the
+     * full board.
+     */
+    private static class Level {
+        private final TransitionModel model; // compiled space-to-space model of the level
+        private final int xSize; // the width of the level
+        private final int ySize; // the height of the level
+        private final int bandRows; // the number of rows below which a band is swept directly instead of being split
+        private final int activeSpaces; // the number of spaces updated by each sweep
+        private final double gamma; // the discount of one step on the level
+        private double[] values; // the value of each space, indexed by x * ySize + y
+        private double[] next; // the table each sweep is written to
+        private final double[] restricted; // the table given by the finer level, kept to compute the correction
+        private final double[] source; // the amount added to the backup of each space
+        private final double[] residuals; // the averaged residual of the finer level
+
+        Level(TransitionModel model, double gamma, ForkJoinPool pool) {
+            this.model = model;
+            this.gamma = gamma;
+            xSize = model.getXSize();
+            ySize = model.getYSize();
+            bandRows = SweepBand.bandRows(pool, xSize, ySize);
+            values = new double[xSize * ySize];
+            next = new double[xSize * ySize];
+            restricted = new double[xSize * ySize];
+            source = new double[xSize * ySize];
+            residuals = new double[xSize * ySize];
+            int active = 0;
+            for (int space = 0; space < xSize * ySize; space++) {
+                if (model.isActive(space)) {
+                    active++;
+                }
+                if (model.spaceAt(space / ySize, space % ySize) == TransitionModel.FINISH) { // as ValueIteration starts
+                    values[space] = 1;
+                    next[space] = 1;
+                }
+            }
+            activeSpaces = active;
+        }
+
+        /**
+         * Method sweeps every space of the level once, in parallel row bands.
+         *
+         * @return the largest change made to any space
+         */
+        double sweep(ForkJoinPool pool) {
+            double residual = pool.invoke(new SweepBand(this::sweepRows, 0, xSize, bandRows));
+            double[] swap = values;
+            values = next;
+            next = swap;
+            return residual;
+        }
+
+        private double sweepRows(int from, int to) {
+            double max = 0;
+            for (int space = from * ySize; space < to * ySize; space++) {
+                if (model.isActive(space)) { // walls are never written, and keep their value in both tables
+                    next[space] = model.bestValue(space, gamma, values) + source[space];
+                    max = Math.max(max, Math.abs(next[space] - values[space]));
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Method sets every active space to the average value, and the average residual, of the active spaces of its
+         * block on the finer level. The residual of the finer level is the change made by its last sweep.
+         */
+        void restrict(Level fine) {
+            double[] counts = new double[xSize * ySize];
+            Arrays.fill(restricted, 0);
+            Arrays.fill(residuals, 0);
+            for (int x = 0; x < fine.xSize; x++) {
+                for (int y = 0; y < fine.ySize; y++) {
+                    int space = x * fine.ySize + y;
+                    if (fine.model.isActive(space)) {
+                        int block = (x / FACTOR) * ySize + y / FACTOR;
+                        restricted[block] += fine.values[space];
+                        residuals[block] += fine.values[space] - fine.next[space];
+                        counts[block]++;
+                    }
+                }
+            }
+            for (int space = 0; space < xSize * ySize; space++) {
+                if (model.isActive(space) && counts[space] > 0) {
+                    restricted[space] /= counts[space];
+                    residuals[space] /= counts[space];
+                } else {
+                    restricted[space] = model.isActive(space) ? values[space] : 0;
+                    residuals[space] = 0;
+                }
+                values[space] = restricted[space];
+                next[space] = restricted[space];
+            }
+        }
+
+        /**
+         * Method sets the source of every space to the one which makes the restricted table a fixed point of the
+         * level, plus the scaled residual of the finer level.
+         *
+         * @param scale (Double) the factor the residual of the finer level is multiplied by
+         */
+        void setSource(double scale) {
+            Arrays.fill(source, 0); // the source of the level itself must not be part of the new one
+            for (int space = 0; space < xSize * ySize; space++) {
+                if (model.isActive(space)) {
+                    source[space] = restricted[space] - model.bestValue(space, gamma, restricted) + scale * residuals[space];
+                }
+            }
+        }
+
+        /**
+         * Method adds to every active space the change the coarser level made to its block.
+         */
+        void correct(Level coarse) {
+            for (int x = 0; x < xSize; x++) {
+                for (int y = 0; y < ySize; y++) {
+                    int space = x * ySize + y;
+                    int block = (x / FACTOR) * coarse.ySize + y / FACTOR;
+                    if (model.isActive(space) && coarse.model.isActive(block)) {
+                        values[space] += coarse.values[block] - coarse.restricted[block];
+                    }
+                }
+            }
+        }
+
+        /**
+         * Method starts the level from the scaled values of the coarser level: every active space takes the value of
+         * the block it belongs to.
+         */
+        void prolong(Level coarse, double scale) {
+            for (int x = 0; x < xSize; x++) {
+                for (int y = 0; y < ySize; y++) {
+                    int space = x * ySize + y;
+                    if (model.isActive(space)) {
+                        values[space] = coarse.values[(x / FACTOR) * coarse.ySize + y / FACTOR] * scale;
+                    }
+                }
+            }
+        }
+
+        double[][] table() {
+            double[][] table = new double[xSize][ySize];
+            for (int x = 0; x < xSize; x++) {
+                System.arraycopy(values, x * ySize, table[x], 0, ySize);
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package racetrack;
+
+/**
+ * Telemetry sink which discards everything it receives, for runs where only the outcome matters.
+ */
+public class NullTelemetrySink implements TelemetrySink {
+
+    public static final NullTelemetrySink INSTANCE = new NullTelemetrySink(); // the sink holds no state, so one suffices
+
+    @Override
+    public void onStep(int time, int xAction, int yAction, int x, int y) {
+    }
+
+    @Override
+    public void onReward(int time, double reward) {
+    }
+
+    @Override
+    public void onReset(int time, int xCrash, int yCrash, int x, int y) {
+    }
+}
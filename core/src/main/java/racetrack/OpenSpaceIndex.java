@@ -0,0 +1,150 @@
+package racetrack;
+
+import java.util.Arrays;
+
+/**
+ * Index of the nearest open ('.') space to every position a vehicle can collide at, built once per board. The board is
+ * padded by the largest distance a vehicle can travel in one step, so positions just out of bounds are covered too.
+ * A lookup only visits the spaces at exactly the nearest distance, instead of scanning the whole board.
+ */
+public class OpenSpaceIndex {
+
+    private static final int PAD = TransitionModel.MAX_SPEED; // how far out of bounds a vehicle can end up
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 2; // distance of every position on a board with no open spaces
+
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final int width; // the height of the padded board
+    private final Board board; // the game board
+    private final int[] distances; // Manhattan distance from each padded position to its nearest open space
+
+    /**
+     * Constructor for the OpenSpaceIndex class. Computes the Manhattan distance from every padded position to its
+     * nearest open space with a two-pass distance transform.
+     *
+     * @param board (2D Character Array) ASCII representation of the game board
+     */
+    public OpenSpaceIndex(char[][] board) {
+        this(Board.of(board));
+    }
+
+    /**
+     * Constructor for the OpenSpaceIndex class, see OpenSpaceIndex(char[][]).
+     *
+     * @param board (Board) the game board
+     */
+    public OpenSpaceIndex(Board board) {
+        this.board = board;
+        xSize = board.getXSize();
+        ySize = board.getYSize();
+        width = ySize + 2 * PAD;
+        int height = xSize + 2 * PAD;
+        distances = new int[height * width];
+        Arrays.fill(distances, UNREACHABLE);
+        for (int i = 0; i < xSize; i++) {
+            for (int j = 0; j < ySize; j++) {
+                if (board.charAt(i, j) == '.') {
+                    distances[(i + PAD) * width + j + PAD] = 0;
+                }
+            }
+        }
+
+        // forward pass, from the top left neighbours
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                int d = distances[i * width + j];
+                if (i > 0) {
+                    d = Math.min(d, distances[(i - 1) * width + j] + 1);
+                }
+                if (j > 0) {
+                    d = Math.min(d, distances[i * width + j - 1] + 1);
+                }
+                distances[i * width + j] = d;
+            }
+        }
+        // backward pass, from the bottom right neighbours
+        for (int i = height - 1; i >= 0; i--) {
+            for (int j = width - 1; j >= 0; j--) {
+                int d = distances[i * width + j];
+                if (i < height - 1) {
+                    d = Math.min(d, distances[(i + 1) * width + j] + 1);
+                }
+                if (j < width - 1) {
+                    d = Math.min(d, distances[i * width + j + 1] + 1);
+                }
+                distances[i * width + j] = d;
+            }
+        }
+    }
+
+    /**
+     * Method finds the open space nearest to a position. When several open spaces are equally near, the one nearest to
+     * the previous position of the vehicle is selected, and any remaining tie goes to the space which comes first in
+     * row-major order; this matches a full scan of the board.
+     *
+     * @param x (Integer) the x coordinate of the position
+     * @param y (Integer) the y coordinate of the position
+     * @param xPrev (Integer) the x coordinate of the previous position of the vehicle
+     * @param yPrev (Integer) the y coordinate of the previous position of the vehicle
+     * @return the nearest open space, encoded as x * ySize + y, or 0 if the board has no open spaces
+     */
+    public int nearest(int x, int y, int xPrev, int yPrev) {
+        int px = x + PAD;
+        int py = y + PAD;
+        if (px < 0 || px >= xSize + 2 * PAD || py < 0 || py >= width) {
+            return scan(x, y, xPrev, yPrev); // further out than any single step can reach
+        }
+        int distance = distances[px * width + py];
+        if (distance >= UNREACHABLE) {
+            return 0;
+        }
+
+        int best = -1;
+        int bestPrevious = Integer.MAX_VALUE;
+        for (int dx = -distance; dx <= distance; dx++) {
+            int i = x + dx;
+            if (i < 0 || i >= xSize) {
+                continue;
+            }
+            int dy = distance - Math.abs(dx);
+            for (int j = y - dy; j <= y + dy; j += Math.max(1, 2 * dy)) { // the one or two spaces on the diamond
+                if (j < 0 || j >= ySize || board.charAt(i, j) != '.') {
+                    continue;
+                }
+                int previous = Math.abs(xPrev - i) + Math.abs(yPrev - j);
+                int space = i * ySize + j;
+                if (previous < bestPrevious || (previous == bestPrevious && space < best)) {
+                    best = space;
+                    bestPrevious = previous;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Method finds the open space nearest to a position by scanning every space of the board.
+     */
+    private int scan(int x, int y, int xPrev, int yPrev) {
+        int minDistance = Integer.MAX_VALUE;
+        int nearest = 0;
+        for (int i = 0; i < xSize; i++) {
+            for (int j = 0; j < ySize; j++) {
+                if (board.charAt(i, j) == '.') {
+                    int i1 = Math.abs(x - i) + Math.abs(y - j);
+                    if (i1 < minDistance) {
+                        minDistance = i1;
+                        nearest = i * ySize + j;
+                    } else if (i1 == minDistance) {
+                        int i2 = Math.abs(xPrev - i) + Math.abs(yPrev - j);
+                        int i3 = Math.abs(xPrev - nearest / ySize) + Math.abs(yPrev - nearest % ySize);
+                        if (i2 < i3) {
+                            nearest = i * ySize + j;
+                        }
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,192 @@
+package racetrack;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Compact binary track format, read through a memory mapping so that very large boards are neither parsed nor copied
+ * onto the heap. A file consists of a little-endian header, the spaces of the board in row-major order packed four to a
+ * byte with two bits each (see TransitionModel: 0 wall, 1 open, 2 start, 3 finish), and the starting spaces.
+ * <pre>
+ *     int magic, int version, int xSize, int ySize, int starts, packed spaces, starts * (int x, int y)
+ * </pre>
+ */
+public class PackedTrackFile implements Board {
+
+    public static final String EXTENSION = ".track"; // file name extension of packed tracks
+    private static final int MAGIC = 0x4b525452; // "RTRK" in little-endian order
+    private static final int VERSION = 1;
+    private static final int HEADER = 20; // size of the header, in bytes
+    private static final char[] CHARACTERS = {'#', '.', 'S', 'F'}; // the character of each space type
+
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final int[] starts; // the x and y coordinates of each starting space, in pairs
+    private final ByteBuffer spaces; // the packed spaces of the board, a slice of the mapping
+
+    private PackedTrackFile(int xSize, int ySize, int[] starts, ByteBuffer spaces) {
+        this.xSize = xSize;
+        this.ySize = ySize;
+        this.starts = starts;
+        this.spaces = spaces;
+    }
+
+    /**
+     * Method maps a packed track file into memory. Only the header and starting spaces are read up front; spaces are
+     * paged in by the operating system as they are accessed.
+     *
+     * @param fileName (String) the file name of a packed track
+     * @return the mapped track
+     * @throws IOException Throws an IOException if the file cannot be read, is not a packed track, or is truncated.
+     */
+    public static PackedTrackFile open(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (size < HEADER || mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IOException(fileName + " is not a packed track");
+            }
+            int xSize = mapped.getInt(8);
+            int ySize = mapped.getInt(12);
+            int startCount = mapped.getInt(16);
+            if (xSize <= 0 || ySize <= 0 || startCount < 0) {
+                throw new IOException(fileName + " has a corrupt header");
+            }
+            long packedBytes = ((long) xSize * ySize + 3) / 4;
+            if (HEADER + packedBytes + 8L * startCount > size) {
+                throw new IOException(fileName + " is truncated");
+            }
+            int[] starts = new int[2 * startCount];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = mapped.getInt((int) (HEADER + packedBytes + 4 * i));
+            }
+            mapped.position(HEADER).limit((int) (HEADER + packedBytes));
+            return new PackedTrackFile(xSize, ySize, starts, mapped.slice());
+        }
+    }
+
+    /**
+     * Method converts a text track, in the format read by Track, into a packed track file.
+     *
+     * @param textFile (String) the file name of the text track
+     * @param packedFile (String) the file name of the packed track to write
+     * @throws IOException Throws an IOException if either file cannot be accessed properly.
+     */
+    public static void convert(String textFile, String packedFile) throws IOException {
+        try (BufferedReader in = new BufferedReader(new FileReader(textFile));
+             FileChannel out = FileChannel.open(Path.of(packedFile), StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            String[] coordinateInformation = in.readLine().split(",");
+            int xSize = Integer.parseInt(coordinateInformation[0]);
+            int ySize = Integer.parseInt(coordinateInformation[1]);
+
+            // rows are packed as they are read; the header is written last, once the starting spaces are known
+            ArrayList<int[]> starts = new ArrayList<>();
+            ByteBuffer packed = ByteBuffer.allocate(1 << 20);
+            long offset = HEADER;
+            int current = 0;
+            long cell = 0;
+            for (int i = 0; i < xSize; i++) {
+                String line = in.readLine();
+                for (int j = 0; j < ySize; j++, cell++) {
+                    char character = line.charAt(j);
+                    int type = character == '#' ? 0 : character == 'S' ? 2 : character == 'F' ? 3 : 1;
+                    if (type == 2) {
+                        starts.add(new int[] {i, j});
+                    }
+                    current |= type << (2 * (int) (cell & 3));
+                    if ((cell & 3) == 3) {
+                        packed.put((byte) current);
+                        current = 0;
+                        if (!packed.hasRemaining()) {
+                            offset = write(out, packed, offset);
+                        }
+                    }
+                }
+            }
+            if ((cell & 3) != 0) {
+                packed.put((byte) current);
+            }
+            offset = write(out, packed, offset);
+
+            ByteBuffer trailer = ByteBuffer.allocate(8 * starts.size()).order(ByteOrder.LITTLE_ENDIAN);
+            for (int[] start : starts) {
+                trailer.putInt(start[0]).putInt(start[1]);
+            }
+            write(out, trailer, offset);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(xSize).putInt(ySize).putInt(starts.size());
+            write(out, header, 0);
+        }
+    }
+
+    /**
+     * Method converts text tracks into packed track files next to them, replacing their extension.
+     *
+     * @param args (String Array) the file names of the text tracks
+     */
+    public static void main(String[] args) throws IOException {
+        for (String textFile : args) {
+            int extension = textFile.lastIndexOf('.');
+            String packedFile = (extension > 0 ? textFile.substring(0, extension) : textFile) + EXTENSION;
+            convert(textFile, packedFile);
+            System.out.println(textFile + " -> " + packedFile);
+        }
+    }
+
+    /**
+     * Method writes the contents of a buffer to a channel at an offset, then clears the buffer.
+     *
+     * @return the offset following the written bytes
+     */
+    private static long write(FileChannel out, ByteBuffer buffer, long offset) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            offset += out.write(buffer, offset);
+        }
+        buffer.clear();
+        return offset;
+    }
+
+    @Override
+    public int getXSize() {
+        return xSize;
+    }
+
+    @Override
+    public int getYSize() {
+        return ySize;
+    }
+
+    /**
+     * @return the x and y coordinates of each starting space, in pairs
+     */
+    public int[] getStarts() {
+        return starts;
+    }
+
+    /**
+     * @param x (Integer) the x coordinate, in the range [0, xSize)
+     * @param y (Integer) the y coordinate, in the range [0, ySize)
+     * @return the type of the space: TransitionModel.WALL, OPEN, START or FINISH
+     */
+    public byte spaceAt(int x, int y) {
+        long cell = (long) x * ySize + y;
+        return (byte) ((spaces.get((int) (cell >>> 2)) >>> (2 * (cell & 3))) & 3);
+    }
+
+    @Override
+    public char charAt(int x, int y) {
+        return CHARACTERS[spaceAt(x, y)];
+    }
+}
@@ -0,0 +1,170 @@
+package racetrack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Greedy policy compiled from a converged value table: one encoded action per state, so that choosing an action is a
+ * single array lookup. Actions are encoded as (i + 1) * 3 + (j + 1) for an acceleration of i on the x coordinate and j
+ * on the y coordinate. A policy is immutable once compiled, and may be shared by any number of controllers and threads.
+ * Policies are saved in a little-endian binary file:
+ * <pre>
+ *     int magic, int version, int xSize, int ySize, int spaceStates, xSize * ySize * spaceStates actions
+ * </pre>
+ */
+public class Policy {
+
+    private static final int MAGIC = 0x4c4f5052; // "RPOL" in little-endian order
+    private static final int VERSION = 1;
+    private static final int HEADER = 20; // size of the header, in bytes
+    private static final byte STAY = 4; // the encoded action which does not accelerate
+
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final int spaceStates; // the number of states on each space: 1, or one per velocity
+    private final byte[] actions; // the encoded action of each state, indexed as TransitionModel.indexOf()
+
+    private Policy(int xSize, int ySize, int spaceStates, byte[] actions) {
+        this.xSize = xSize;
+        this.ySize = ySize;
+        this.spaceStates = spaceStates;
+        this.actions = actions;
+    }
+
+    /**
+     * Method compiles the policy followed by ValueController on a value table from ValueIteration: the vehicle
+     * accelerates towards the neighbouring space of the highest value, and the first such space in scan order wins a
+     * tie. Neighbours outside of the board are never chosen.
+     *
+     * @param valueTable (2D Double Array) array containing the value of each space on the track
+     * @return the compiled policy
+     */
+    public static Policy compile(double[][] valueTable) {
+        int xSize = valueTable.length;
+        int ySize = valueTable[0].length;
+        byte[] actions = new byte[xSize * ySize];
+        for (int x = 0; x < xSize; x++) {
+            for (int y = 0; y < ySize; y++) {
+                byte action = STAY;
+                double max = -999;
+                for (int i = -1; i <= 1; i++) {
+                    for (int j = -1; j <= 1; j++) {
+                        int xi = x + i;
+                        int yj = y + j;
+                        if (xi >= 0 && xi < xSize && yj >= 0 && yj < ySize && valueTable[xi][yj] > max) {
+                            max = valueTable[xi][yj];
+                            action = (byte) ((i + 1) * 3 + (j + 1));
+                        }
+                    }
+                }
+                actions[x * ySize + y] = action;
+            }
+        }
+        return new Policy(xSize, ySize, 1, actions);
+    }
+
+    /**
+     * Method compiles the best action of every (x, y, xVelocity, yVelocity) state of a solved velocity-aware value
+     * iteration, see VelocityValueIteration.bestAction().
+     *
+     * @param values (VelocityValueIteration) solved state values for each position and velocity on the track
+     * @param xSize (Integer) the width of the track board
+     * @param ySize (Integer) the height of the track board
+     * @return the compiled policy
+     */
+    public static Policy compile(VelocityValueIteration values, int xSize, int ySize) {
+        byte[] actions = new byte[xSize * ySize * TransitionModel.VELOCITY_STATES];
+        for (int x = 0; x < xSize; x++) {
+            for (int y = 0; y < ySize; y++) {
+                for (int xVelocity = -TransitionModel.MAX_SPEED; xVelocity <= TransitionModel.MAX_SPEED; xVelocity++) {
+                    for (int yVelocity = -TransitionModel.MAX_SPEED; yVelocity <= TransitionModel.MAX_SPEED; yVelocity++) {
+                        actions[values.indexOf(x, y, xVelocity, yVelocity)] = (byte) values.bestAction(x, y, xVelocity, yVelocity);
+                    }
+                }
+            }
+        }
+        return new Policy(xSize, ySize, TransitionModel.VELOCITY_STATES, actions);
+    }
+
+    /**
+     * Method loads a policy saved by save().
+     *
+     * @param fileName (String) the file name of the policy
+     * @return the loaded policy
+     * @throws IOException Throws an IOException if the file cannot be read or is not a policy.
+     */
+    public static Policy load(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() < HEADER || mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IOException(fileName + " is not a policy");
+            }
+            int xSize = mapped.getInt(8);
+            int ySize = mapped.getInt(12);
+            int spaceStates = mapped.getInt(16);
+            byte[] actions = new byte[xSize * ySize * spaceStates];
+            if (channel.size() != HEADER + (long) actions.length) {
+                throw new IOException(fileName + " is truncated");
+            }
+            mapped.get(HEADER, actions);
+            return new Policy(xSize, ySize, spaceStates, actions);
+        }
+    }
+
+    /**
+     * Method saves the policy to a file, replacing any existing contents.
+     *
+     * @param fileName (String) the file name of the policy
+     * @throws IOException Throws an IOException if the file cannot be written.
+     */
+    public void save(String fileName) throws IOException {
+        try (FileChannel out = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(xSize).putInt(ySize).putInt(spaceStates).flip();
+            ByteBuffer body = ByteBuffer.wrap(actions);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                out.write(new ByteBuffer[] {header, body});
+            }
+        }
+    }
+
+    public int getXSize() {
+        return xSize;
+    }
+
+    public int getYSize() {
+        return ySize;
+    }
+
+    /**
+     * @return true if the actions of the policy depend on the velocity of the vehicle
+     */
+    public boolean usesVelocity() {
+        return spaceStates != 1;
+    }
+
+    /**
+     * Method looks up the action of a state. The velocity is ignored by policies compiled from a ValueIteration table.
+     *
+     * @param x (Integer) the x coordinate of the vehicle, on the board
+     * @param y (Integer) the y coordinate of the vehicle, on the board
+     * @param xVelocity (Integer) the x velocity of the vehicle, in the range [-5, 5]
+     * @param yVelocity (Integer) the y velocity of the vehicle, in the range [-5, 5]
+     * @return the encoded action
+     */
+    public int actionAt(int x, int y, int xVelocity, int yVelocity) {
+        int space = x * ySize + y;
+        if (spaceStates == 1) {
+            return actions[space];
+        }
+        return actions[(space * TransitionModel.VELOCITIES + xVelocity + TransitionModel.MAX_SPEED)
+                * TransitionModel.VELOCITIES + yVelocity + TransitionModel.MAX_SPEED];
+    }
+}
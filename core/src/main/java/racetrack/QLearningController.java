@@ -0,0 +1,513 @@
+package racetrack;
+
+import java.io.IOException;
+import java.util.*;
+
+public class QLearningController {
+
+    private static final Metrics.Counter EPISODES = Metrics.counter("qLearning.episodes");
+    private static final Metrics.Counter Q_UPDATES = Metrics.counter("qLearning.qUpdates");
+    private static final Metrics.Counter CRASHES = Metrics.counter("qLearning.crashes");
+    private static final Metrics.Counter EXPLORED = Metrics.counter("qLearning.explored");
+    private static final Metrics.Counter EXPLOITED = Metrics.counter("qLearning.exploited");
+    private static final Metrics.Histogram STEPS_PER_EPISODE = Metrics.histogram("qLearning.stepsPerEpisode");
+    private static final Metrics.Histogram CRASHES_PER_EPISODE = Metrics.histogram("qLearning.crashesPerEpisode");
+    private static final Metrics.Gauge Q_UPDATES_PER_SECOND = Metrics.gauge("qLearning.qUpdatesPerSecond");
+    private static final double TRACE_CUTOFF = 0.01; // eligibility below which a trace is pruned
+
+    private final SplittableRandom random; // source of the exploration decisions of the controller
+
+    private Car car;
+    private Track track;
+    private OpenSpaceIndex openSpaces; // nearest open space to every collision position on the track
+    private TelemetrySink telemetry; // receives the progress of the controller
+    private boolean totalReset; // determines whether the vehicle returns to its origin upon a collision
+    private int xSize; // width of the track board
+    private int ySize; // height of the track board
+    private int xCur; // the current x position of the vehicle
+    private int yCur; // the current y position of the vehicle
+    private int xPrev; // the previous x position of the vehicle
+    private int yPrev; // the previous y position of the vehicle
+    private int[] nextAction; // the next action will will be taken
+    private int[][] alphaTable = new int[][] {{100, 100, 100}, {100, 100, 100}, {100, 100, 100}};
+    private double[] rewardMatrix; // table of reward values for each space on the track board, shared with identical tracks
+    private StateIndex states; // dense numbering of the spaces which are not walls, the states of the Q-Table
+    private double[] qTable; // corresponding q values for each state and action, indexed by state * 9 + i * 3 + j
+    private SharedQTable sharedTable; // the Q-Table shared with other controllers, used instead of qTable if not null
+    private DynaPlanner planner; // replays the transitions learned from into sharedTable, or null
+    private double explorationChance; // probability the vehicle will choose an action at random
+    private double gamma; // value which modifies the Q-value calculation after each step
+    private double lambda; // decay of the eligibility traces, or 0 for one-step updates
+    private int[] traceEntries; // the Q-Table entry (state * 9 + i * 3 + j) of each eligibility trace, while lambda > 0
+    private double[] traces; // the eligibility of each trace
+    private int traceCount; // the number of eligibility traces
+    private long episodes; // the number of episodes in which the vehicle has reached the finish line
+    private EpisodeEvent episodeEvent; // measurements of the current episode, only while metrics are enabled
+    private long episodeStart; // System.nanoTime() at the start of the current episode
+
+    /**
+     * Constructor for the QLearningController class. Takes in a track, exploration chance, and boolean state to determine
+     * if the vehicle on the track will return to its origin upon colliding with a wall. The method prepares the necessary
+     * structures to proceed with Q-Learning after initialization completes.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param explorationChance (Double) probability in range [0, 1] that the vehicle will choose a random action
+     * @param gamma (Double) value which modifies the Q-Value calculation after each step
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     */
+    public QLearningController(Track track, double explorationChance, double gamma, boolean totalReset) {
+        this(track, explorationChance, gamma, totalReset, new ConsoleTelemetrySink(track, 1));
+    }
+
+    /**
+     * Constructor for the QLearningController class. Takes in a track, exploration chance, boolean state to determine
+     * if the vehicle on the track will return to its origin upon colliding with a wall, and the sink which receives the
+     * progress of the controller.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param explorationChance (Double) probability in range [0, 1] that the vehicle will choose a random action
+     * @param gamma (Double) value which modifies the Q-Value calculation after each step
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param telemetry (TelemetrySink) receives every step, reward and reset of the controller
+     */
+    public QLearningController(Track track, double explorationChance, double gamma, boolean totalReset,
+                               TelemetrySink telemetry) {
+        this(track, explorationChance, gamma, totalReset, telemetry, new SplittableRandom());
+    }
+
+    /**
+     * Constructor for the QLearningController class. Takes in a track, exploration chance, boolean state to determine
+     * if the vehicle on the track will return to its origin upon colliding with a wall, the sink which receives the
+     * progress of the controller, and the random stream used to explore. Seeding the streams of the controller and the
+     * track makes a run reproducible.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param explorationChance (Double) probability in range [0, 1] that the vehicle will choose a random action
+     * @param gamma (Double) value which modifies the Q-Value calculation after each step
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param telemetry (TelemetrySink) receives every step, reward and reset of the controller
+     * @param random (SplittableRandom) random stream owned by the controller
+     */
+    public QLearningController(Track track, double explorationChance, double gamma, boolean totalReset,
+                               TelemetrySink telemetry, SplittableRandom random) {
+        this(track, (SharedQTable) null, explorationChance, gamma, totalReset, telemetry, random);
+    }
+
+    /**
+     * Constructor for the QLearningController class which learns into a Q-Table shared with other controllers, each
+     * driving its own copy of the track on its own thread; see SharedQTable. The learning rate of every action decays
+     * with the number of times any of the controllers has taken it.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param sharedTable (SharedQTable) the Q-Table shared with other controllers, or null for a Q-Table of its own
+     * @param explorationChance (Double) probability in range [0, 1] that the vehicle will choose a random action
+     * @param gamma (Double) value which modifies the Q-Value calculation after each step
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param telemetry (TelemetrySink) receives every step, reward and reset of the controller
+     * @param random (SplittableRandom) random stream owned by the controller
+     */
+    public QLearningController(Track track, SharedQTable sharedTable, double explorationChance, double gamma,
+                               boolean totalReset, TelemetrySink telemetry, SplittableRandom random) {
+        this(track, sharedTable, explorationChance, gamma, 0, totalReset, telemetry, random);
+    }
+
+    /**
+     * Constructor for the QLearningController class in Dyna-Q mode: the controller learns into the Q-Table of the
+     * planner, and reports every transition it learns from to the planner, whose thread replays them as further
+     * Q-updates between real steps; see DynaPlanner.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param planner (DynaPlanner) the planner, created for a SharedQTable of this track
+     * @param explorationChance (Double) probability in range [0, 1] that the vehicle will choose a random action
+     * @param gamma (Double) value which modifies the Q-Value calculation after each step
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param telemetry (TelemetrySink) receives every step, reward and reset of the controller
+     * @param random (SplittableRandom) random stream owned by the controller
+     */
+    public QLearningController(Track track, DynaPlanner planner, double explorationChance, double gamma,
+                               boolean totalReset, TelemetrySink telemetry, SplittableRandom random) {
+        this(track, planner.getTable(), explorationChance, gamma, 0, totalReset, telemetry, random);
+        this.planner = planner;
+    }
+
+    /**
+     * Constructor for the QLearningController class which learns from lambda-returns: besides the action just taken,
+     * every recently taken action of the episode moves towards the new target, in proportion to an eligibility trace
+     * which decays by gamma * lambda every step, so that rewards reach back along the whole path which led to them in
+     * a single episode. Traces are replaced rather than accumulated when an action is taken again, and are pruned once
+     * they decay below 0.01, which bounds the number kept to about log(0.01) / log(gamma * lambda); they are held in
+     * fixed primitive arrays, so a step never allocates. A lambda of 0 keeps the one-step update.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param sharedTable (SharedQTable) the Q-Table shared with other controllers, or null for a Q-Table of its own
+     * @param explorationChance (Double) probability in range [0, 1] that the vehicle will choose a random action
+     * @param gamma (Double) value which modifies the Q-Value calculation after each step
+     * @param lambda (Double) decay of the eligibility traces in range [0, 1]
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param telemetry (TelemetrySink) receives every step, reward and reset of the controller
+     * @param random (SplittableRandom) random stream owned by the controller
+     */
+    public QLearningController(Track track, SharedQTable sharedTable, double explorationChance, double gamma,
+                               double lambda, boolean totalReset, TelemetrySink telemetry, SplittableRandom random) {
+        this(track, sharedTable, explorationChance, gamma, lambda, totalReset, telemetry, random, null);
+    }
+
+    /**
+     * Constructor which every other constructor delegates to; the tables are restored from a checkpoint, if one is
+     * provided, before the first action is decided.
+     */
+    private QLearningController(Track track, SharedQTable sharedTable, double explorationChance, double gamma,
+                                double lambda, boolean totalReset, TelemetrySink telemetry, SplittableRandom random,
+                                Checkpoint checkpoint) {
+        StateIndex states = track.stateIndex(); // numbered alike for every track with the same board
+        if (sharedTable != null && (sharedTable.getStates().getXSize() != track.getXSize()
+                || sharedTable.getStates().getYSize() != track.getYSize() || sharedTable.getStates().size() != states.size())) {
+            throw new IllegalArgumentException("shared Q-Table does not match the size of the track");
+        }
+        this.random = random;
+        this.sharedTable = sharedTable;
+        this.states = states;
+        this.track = track;
+        this.telemetry = telemetry;
+        this.car = track.car;
+        this.openSpaces = track.openSpaceIndex();
+        this.explorationChance = explorationChance;
+        this.gamma = gamma;
+        this.lambda = lambda;
+        this.totalReset = totalReset;
+        xSize = track.getXSize();
+        ySize = track.getYSize();
+
+        // build the Q table; each space which is not a wall is a state, whereas there are a total of 9 (3 x 3) possible actions
+        if (sharedTable == null) {
+            qTable = new double[states.size() * 9];
+        }
+        if (lambda > 0) { // a trace is pruned once it has decayed for this many steps; it can never be more
+            int capacity = gamma * lambda < 1 ? (int) (Math.log(TRACE_CUTOFF) / Math.log(gamma * lambda)) + 1 : Integer.MAX_VALUE;
+            traceEntries = new int[Math.min(capacity, states.size() * 9)];
+            traces = new double[traceEntries.length];
+        }
+        if (checkpoint != null) {
+            checkpoint.readQTable(states, qTable);
+            checkpoint.readAlphaTable(alphaTable);
+            episodes = checkpoint.getEpisodes();
+        }
+        rewardMatrix = track.rewardMatrix(); // the reward matrix for use in Q-Learning, built once per board
+        if (Metrics.ENABLED) {
+            beginEpisodeMetrics();
+        }
+        decideNextAction(car.xStart, car.yStart); // determines the first action the controller will take
+    }
+
+    /**
+     * Constructor for the QLearningController class which resumes learning from a checkpoint written by
+     * saveCheckpoint(). The exploration chance, gamma, lambda, collision behaviour, Q-Table, learning rates and
+     * episode count are all restored from the checkpoint.
+     * <p>
+     * Eligibility traces are not saved; a controller resumed with a lambda above 0 begins with no traces, as it does at
+     * the start of every episode.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on, with the board of the checkpoint
+     * @param checkpoint (Checkpoint) a Q_TABLE checkpoint, see Checkpoint.open()
+     * @param telemetry (TelemetrySink) receives every step, reward and reset of the controller
+     * @param random (SplittableRandom) random stream owned by the controller
+     */
+    public QLearningController(Track track, Checkpoint checkpoint, TelemetrySink telemetry, SplittableRandom random) {
+        this(track, null, verified(track, checkpoint).getExplorationChance(), checkpoint.getGamma(),
+                checkpoint.getLambda(), checkpoint.isTotalReset(), telemetry, random, checkpoint);
+    }
+
+    /**
+     * Method checks a checkpoint before any of the controller is built from it.
+     *
+     * @return the checkpoint
+     */
+    private static Checkpoint verified(Track track, Checkpoint checkpoint) {
+        checkpoint.verify(track, Checkpoint.Q_TABLE);
+        return checkpoint;
+    }
+
+    /**
+     * Method writes the Q-Table, learning rates, hyperparameters and episode count of the controller to a checkpoint
+     * file, from which a new controller can resume learning.
+     *
+     * @param fileName (String) the file name of the checkpoint, replaced if it exists
+     * @throws IOException Throws an IOException if the file cannot be written.
+     */
+    public void saveCheckpoint(String fileName) throws IOException {
+        if (sharedTable != null) {
+            Checkpoint.writeQTable(fileName, track.contentHash(), explorationChance, gamma, lambda, totalReset,
+                    episodes, states, sharedTable.toQValues(), sharedTable.toAlphaTable());
+            return;
+        }
+        Checkpoint.writeQTable(fileName, track.contentHash(), explorationChance, gamma, lambda, totalReset,
+                episodes, states, qTable, alphaTable);
+    }
+
+    /**
+     * @return the number of episodes in which the vehicle has reached the finish line, including restored episodes
+     */
+    public long getEpisodes() {
+        return episodes;
+    }
+
+    /**
+     * Method prepares the controller for a new episode after the vehicle has been placed back on a starting space, for
+     * example by Track.newEpisode(). The Q-Table and learning rates are kept, so learning carries over between episodes.
+     */
+    public void beginEpisode() {
+        xCur = car.x;
+        yCur = car.y;
+        traceCount = 0; // credit is not carried over from one episode to the next
+        if (Metrics.ENABLED) {
+            beginEpisodeMetrics();
+        }
+        decideNextAction(car.xStart, car.yStart); // determines the first action of the episode
+    }
+
+    public void start() {
+        while (true) {
+            if (act()) break;
+        }
+    }
+
+    /**
+     * Method applies the current value of the nextAction variable to the vehicle, then updates instance values and calls
+     * the updateQ() method.
+     */
+    public boolean act() {
+        // set the previous state of the vehicle
+        xPrev = car.x;
+        yPrev = car.y;
+
+        // apply the action and set the new state of the vehicle
+        if (sharedTable != null) {
+            sharedTable.visit((nextAction[0] + 1) * 3 + nextAction[1] + 1);
+        } else {
+            alphaTable[nextAction[0] + 1][nextAction[1] + 1] += 1;
+        }
+        car.applyAcceleration(nextAction[0], nextAction[1]);
+        xCur = car.x;
+        yCur = car.y;
+
+        // report the vehicle updates
+        telemetry.onStep(car.currentTime, nextAction[0], nextAction[1], xCur, yCur);
+        return updateQ(nextAction[0] + 1, nextAction[1] + 1); // update the Q table using the new information
+    }
+
+    /**
+     * Method determines the effects of the most recent vehicle state change, then updates the vehicle and Q-Table
+     * accordingly. If the vehicle reaches a finish state, then the method terminates.
+     *
+     * @param i (Integer) the action previously applied for the x-coordinate
+     * @param j (Integer) the action previously applied for the y-coordinate
+     */
+    private boolean updateQ(int i, int j) {
+        double reward = getReward(xCur, yCur); // determine the reward for the last applied action
+        telemetry.onReward(car.currentTime, reward);
+        byte space = track.spaceAt(xCur, yCur); // out of bounds spaces are walls
+        if (space == TransitionModel.WALL) { // reset on a collision, depending on specified behavior
+            int xCrash = xCur;
+            int yCrash = yCur;
+            if (totalReset) { // vehicle resets to its origin
+                car.reset();
+                xCur = car.x;
+                yCur = car.y;
+            } else { // vehicle resets to its previous state
+                int nearest = openSpaces.nearest(xCur, yCur, xPrev, yPrev);
+                xCur = nearest / ySize;
+                yCur = nearest % ySize;
+                car.reset(xCur, yCur);
+            }
+            telemetry.onReset(car.currentTime, xCrash, yCrash, xCur, yCur);
+            if (Metrics.ENABLED) {
+                episodeEvent.crashes++;
+            }
+        } else if (space == TransitionModel.FINISH) { // terminate if the vehicle reaches the finish line
+            if (Metrics.ENABLED) {
+                endEpisodeMetrics();
+            }
+            episodes++;
+            return true;
+        }
+
+        double alpha = calculateAlpha(i, j); // calculate the learning rate
+        decideNextAction(xCur, yCur); // determine the next action to be applied
+
+        double q2 = qValue(states.stateOf(xCur, yCur), nextAction[0] + 1, nextAction[1] + 1); // acquire the Q-Value for the current state and expected action
+        int state = states.stateOf(xPrev, yPrev); // the vehicle never stands on a wall, so this is always a state
+        if (lambda > 0) {
+            updateTraces(state, i, j, reward + (gamma * q2));
+        } else if (sharedTable != null) { // the entry may be written by another controller in between, so it is updated atomically
+            sharedTable.update(state, i * 3 + j, alpha, reward + (gamma * q2));
+        } else {
+            double q1 = qTable[state * 9 + i * 3 + j]; // acquire the Q-Value for the previous state
+            qTable[state * 9 + i * 3 + j] = ((1 - alpha) * q1) + (alpha * (reward + (gamma * q2))); // update the Q-Table
+        }
+        if (planner != null) {
+            planner.observe(state, i * 3 + j, states.stateOf(xCur, yCur), reward);
+        }
+        if (Metrics.ENABLED) {
+            episodeEvent.qUpdates++;
+        }
+        return false;
+    }
+
+    /**
+     * Method performs the lambda-return update: the trace of the action just taken is set to 1, then every traced
+     * action moves towards the target by its learning rate times its trace, and every trace decays.
+     *
+     * @param state (Integer) the state the action was taken from
+     * @param i (Integer) the action previously applied for the x-coordinate, in the range [0, 2]
+     * @param j (Integer) the action previously applied for the y-coordinate, in the range [0, 2]
+     * @param target (Double) the reward plus the discounted Q-value of the next state and action
+     */
+    private void updateTraces(int state, int i, int j, double target) {
+        double delta = target - qValue(state, i, j);
+        int entry = state * 9 + i * 3 + j;
+        int trace = 0;
+        while (trace < traceCount && traceEntries[trace] != entry) {
+            trace++;
+        }
+        if (trace == traceCount) {
+            if (traceCount == traceEntries.length) { // only when gamma * lambda is >= 1: the weakest trace makes room
+                trace = 0;
+                for (int t = 1; t < traceCount; t++) {
+                    trace = traces[t] < traces[trace] ? t : trace;
+                }
+            } else {
+                traceCount++;
+            }
+            traceEntries[trace] = entry;
+        }
+        traces[trace] = 1;
+
+        double decay = gamma * lambda;
+        for (int t = traceCount - 1; t >= 0; t--) { // backwards, so a pruned trace can be replaced by the last one
+            int traced = traceEntries[t];
+            double change = calculateAlpha(traced % 9 / 3, traced % 3) * delta * traces[t];
+            if (sharedTable != null) {
+                sharedTable.add(traced / 9, traced % 9, change);
+            } else {
+                qTable[traced] += change;
+            }
+            traces[t] *= decay;
+            if (traces[t] < TRACE_CUTOFF) {
+                traceCount--;
+                traceEntries[t] = traceEntries[traceCount];
+                traces[t] = traces[traceCount];
+            }
+        }
+    }
+
+    /**
+     * Method pulls the reward value for the provided x-y coordinates.
+     *
+     * @param x (Integer) the x coordinate
+     * @param y (Integer) the y coordinate
+     * @return a double value indicating the reward for the provided coordinate position
+     */
+    private double getReward(int x, int y) {
+        if (x >= xSize || x < 0 || y >= ySize || y < 0) {
+            return -1;
+        }
+        return rewardMatrix[x * ySize + y];
+    }
+
+    /**
+     * Method determines what the next action to be applied will be. There is a stochastic element which determines
+     * whether the action will be made at random based upon the explorationChance value of the controller object. If
+     * there are multiple optimal actions, one will be selected at random.
+     *
+     * @param x the current x coordinate of the vehicle
+     * @param y the curreny y coordinate of the vehicle
+     */
+    void decideNextAction(int x, int y) { // package-private so that it can be benchmarked on its own
+        int[] action = new int[2];
+        boolean explore = random.nextDouble() < explorationChance;
+        if (Metrics.ENABLED) {
+            if (explore) {
+                episodeEvent.explored++;
+            } else {
+                episodeEvent.exploited++;
+            }
+        }
+        if (explore) { // make an action at random
+            nextAction = new int[] {random.nextInt(3) - 1, random.nextInt(3) - 1};
+        } else { // select the maximized action based upon the current Q-Table information
+            int state = states.stateOf(x, y);
+            double max = -999;
+            for (int i = -1; i <= 1; i++) {
+                for (int j = -1; j <= 1; j++) {
+                    double q = qValue(state, i + 1, j + 1);
+                    if (max < q) { // the Q-Table value is larger, so pick it
+                        action = new int[]{i, j};
+                        max = q;
+                    } else if (max == q) { // the Q-Table value and max value are equal
+                        if (random.nextInt(2) == 1) { // randomly pick between the current and selected action
+                            action = new int[]{i, j};
+                        }
+                    }
+                }
+            }
+            nextAction = action; // assign the next action
+        }
+    }
+
+    /**
+     * Method reads a Q-value from the Q-Table the controller learns into.
+     *
+     * @param state (Integer) the state, see StateIndex.stateOf()
+     * @param i (Integer) the action on the x-coordinate, in the range [0, 2]
+     * @param j (Integer) the action on the y-coordinate, in the range [0, 2]
+     * @return the Q-value of the state and action; always 0 for a wall, which is never learned
+     */
+    private double qValue(int state, int i, int j) {
+        if (state < 0) {
+            return 0;
+        }
+        return sharedTable != null ? sharedTable.get(state, i * 3 + j) : qTable[state * 9 + i * 3 + j];
+    }
+
+    /**
+     * Method starts measuring a new episode.
+     */
+    private void beginEpisodeMetrics() {
+        episodeEvent = new EpisodeEvent();
+        episodeEvent.begin();
+        episodeStart = System.nanoTime();
+    }
+
+    /**
+     * Method publishes the measurements of the episode which has just finished to the metrics registry and JFR.
+     */
+    private void endEpisodeMetrics() {
+        long nanos = System.nanoTime() - episodeStart;
+        episodeEvent.episode = episodes;
+        episodeEvent.steps = car.currentTime;
+        episodeEvent.commit();
+        EPISODES.increment();
+        Q_UPDATES.add(episodeEvent.qUpdates);
+        CRASHES.add(episodeEvent.crashes);
+        EXPLORED.add(episodeEvent.explored);
+        EXPLOITED.add(episodeEvent.exploited);
+        STEPS_PER_EPISODE.record(episodeEvent.steps);
+        CRASHES_PER_EPISODE.record(episodeEvent.crashes);
+        Q_UPDATES_PER_SECOND.set(nanos == 0 ? 0 : episodeEvent.qUpdates / (nanos / 1e9));
+    }
+
+    /**
+     * Method calculates the alpha value for a given action. This serves as the learning rate for the action. As the
+     * action occurs more, its learning rate will decay over time, until the values in the Q-Table converge.
+     *
+     * @param i the action on the x-coordinate
+     * @param j the action on the y-coordinate
+     * @return a double value representing the learning rate for the provided action
+     */
+    private double calculateAlpha(int i, int j) {
+        if (sharedTable != null) {
+            return sharedTable.alpha(i * 3 + j);
+        }
+        return 100d / (double)alphaTable[i][j];
+    }
+}
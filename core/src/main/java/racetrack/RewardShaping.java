@@ -0,0 +1,70 @@
+package racetrack;
+
+/**
+ * Builds the shaped reward matrices used by Q-learning. Each track keeps the matrix of its board, see
+ * Track.rewardMatrix(), and shares it with every copy made of it, so that any number of controllers on copies of one
+ * track share a single matrix.
+ */
+public class RewardShaping {
+
+    private RewardShaping() {
+    }
+
+    /**
+     * Method constructs the reward matrix based on the track board. The reward of any viable space is equal to the
+     * minimum number of spaces between it and the nearest finish space. The reward of a wall is -1. Spaces are visited
+     * breadth first from the finish line, through a queue of space indices (x * ySize + y).
+     *
+     * @param board (Board) the game board
+     * @return the reward of each space, indexed by x * ySize + y
+     */
+    public static double[] buildRewardMatrix(Board board) {
+        int xSize = board.getXSize();
+        int ySize = board.getYSize();
+        boolean[] touched = new boolean[xSize * ySize]; // array indicating which spaces have been evaluated or set to be evaluated
+        IntQueue toVisit = new IntQueue(xSize * ySize); // queue of spaces to evaluate
+        double[] rewardMatrix = new double[xSize * ySize];
+        for (int i = 0; i < xSize; i++) {
+            for (int j = 0; j < ySize; j++) {
+                // assign initial reward values based on the type of each space
+                rewardMatrix[i * ySize + j] = board.charAt(i, j) == '#' ? -1 : 0;
+                if (board.charAt(i, j) == 'F') {
+                    // assign the values of the finish line, and set them to be evaluated
+                    rewardMatrix[i * ySize + j] = xSize * ySize;
+                    toVisit.add(i * ySize + j);
+                    touched[i * ySize + j] = true;
+                }
+            }
+        }
+
+        int space, x, y, xi, yj;
+        double current;
+        while (!toVisit.isEmpty()) { // continue until there are no more spaces to evaluate
+            space = toVisit.remove();
+            x = space / ySize;
+            y = space % ySize;
+
+            if (board.charAt(x, y) == '#') { // do not update the rewards of wall spaces
+                continue;
+            }
+
+            for (int i = -1; i <= 1; i++) {
+                for (int j = -1; j <= 1; j++) {
+                    xi = x + i;
+                    yj = y + j;
+
+                    if (!(xi >= xSize || xi < 0 || yj >= ySize || yj < 0)) { // ensure the touched coordinates are not out of bounds
+                        if (!touched[xi * ySize + yj]) {
+                            toVisit.add(xi * ySize + yj);
+                            touched[xi * ySize + yj] = true;
+                        }
+
+                        current = rewardMatrix[xi * ySize + yj];
+                        rewardMatrix[space] = rewardMatrix[space] >= current ? rewardMatrix[space] : current / 1.1; // choose the highest neighboring reward value, and reduce it by ten
+                    }
+                }
+            }
+        }
+        return rewardMatrix;
+    }
+}
@@ -0,0 +1,126 @@
+package racetrack;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Q-Table shared by several QLearningControllers learning at the same time, each on its own thread and its own copy of
+ * the track, in the style of Hogwild: no locks are taken. Q-values are held in a flat array, indexed by
+ * state * 9 + i * 3 + j for an action of (i - 1, j - 1) from a state of a StateIndex, and each update is a
+ * compare-and-set loop on its single entry, so updates made by two threads to the same entry are never lost; reads
+ * may see a slightly stale value, which Q-learning tolerates. The number of times each action has been taken, from
+ * which every controller derives its learning rate, is counted across all threads without contention.
+ */
+public class SharedQTable {
+
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(double[].class);
+    private static final int INITIAL_VISITS = 100; // the count every action starts at, as in QLearningController
+
+    private final StateIndex states; // the states of the track board
+    private final double[] values; // the Q-value of each state and action, indexed by state * 9 + i * 3 + j
+    private final LongAdder[] visits; // the number of times each action has been taken, by any controller
+
+    /**
+     * Constructor for the SharedQTable class, with every Q-value at zero.
+     *
+     * @param states (StateIndex) the states of the track board, see Track.stateIndex()
+     */
+    public SharedQTable(StateIndex states) {
+        this.states = states;
+        values = new double[states.size() * 9];
+        visits = new LongAdder[9];
+        for (int action = 0; action < 9; action++) {
+            visits[action] = new LongAdder();
+            visits[action].add(INITIAL_VISITS);
+        }
+    }
+
+    public StateIndex getStates() {
+        return states;
+    }
+
+    /**
+     * @param state (Integer) the state, see StateIndex.stateOf()
+     * @param action (Integer) the action, encoded as i * 3 + j
+     * @return the Q-value of the state and action, as last written by any controller
+     */
+    public double get(int state, int action) {
+        return (double) VALUES.getOpaque(values, state * 9 + action);
+    }
+
+    /**
+     * Method moves the Q-value of a state and action towards a target, retrying if another controller writes the same
+     * entry in between.
+     *
+     * @param state (Integer) the state, see StateIndex.stateOf()
+     * @param action (Integer) the action, encoded as i * 3 + j
+     * @param alpha (Double) the learning rate
+     * @param target (Double) the reward plus the discounted Q-value of the next state
+     */
+    public void update(int state, int action, double alpha, double target) {
+        int index = state * 9 + action;
+        double q;
+        do {
+            q = (double) VALUES.getOpaque(values, index);
+        } while (!VALUES.weakCompareAndSetPlain(values, index, q, ((1 - alpha) * q) + (alpha * target)));
+    }
+
+    /**
+     * Method adds an amount to the Q-value of a state and action, retrying if another controller writes the same entry
+     * in between.
+     *
+     * @param state (Integer) the state, see StateIndex.stateOf()
+     * @param action (Integer) the action, encoded as i * 3 + j
+     * @param amount (Double) the amount added
+     */
+    public void add(int state, int action, double amount) {
+        int index = state * 9 + action;
+        double q;
+        do {
+            q = (double) VALUES.getOpaque(values, index);
+        } while (!VALUES.weakCompareAndSetPlain(values, index, q, q + amount));
+    }
+
+    /**
+     * Method counts one more use of an action.
+     *
+     * @param action (Integer) the action, encoded as i * 3 + j
+     */
+    public void visit(int action) {
+        visits[action].increment();
+    }
+
+    /**
+     * Method calculates the learning rate of an action, which decays with the number of times any controller has taken
+     * it.
+     *
+     * @param action (Integer) the action, encoded as i * 3 + j
+     * @return a double value representing the learning rate for the provided action
+     */
+    public double alpha(int action) {
+        return 100d / (double) visits[action].sum();
+    }
+
+    /**
+     * @return a copy of the Q-values, indexed state * 9 + i * 3 + j, as stored by Checkpoint.writeQTable()
+     */
+    public double[] toQValues() {
+        double[] qValues = new double[values.length];
+        for (int index = 0; index < values.length; index++) {
+            qValues[index] = (double) VALUES.getOpaque(values, index);
+        }
+        return qValues;
+    }
+
+    /**
+     * @return a copy of the action counts, indexed [i][j] and capped at Integer.MAX_VALUE
+     */
+    public int[][] toAlphaTable() {
+        int[][] alphaTable = new int[3][3];
+        for (int action = 0; action < 9; action++) {
+            alphaTable[action / 3][action % 3] = (int) Math.min(Integer.MAX_VALUE, visits[action].sum());
+        }
+        return alphaTable;
+    }
+}
@@ -0,0 +1,84 @@
+package racetrack;
+
+import java.util.Arrays;
+
+/**
+ * Dense numbering of the spaces of a board which are not walls, built once per board. Tables indexed by state instead
+ * of by space hold no entries for walls, which make up most of many boards, and can be flat arrays of primitives, free
+ * of the headers and pointers of nested arrays. States are numbered in [x][y] order, so neighbouring spaces of a row
+ * keep neighbouring states.
+ */
+public class StateIndex {
+
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final int[] states; // the state of each space indexed by x * ySize + y, or -1 for a wall
+    private final int[] spaces; // the space of each state, as x * ySize + y
+
+    /**
+     * Constructor for the StateIndex class. Numbers every open, starting and finish space of the board.
+     *
+     * @param board (Board) the game board
+     */
+    public StateIndex(Board board) {
+        xSize = board.getXSize();
+        ySize = board.getYSize();
+        states = new int[xSize * ySize];
+        int[] spaces = new int[xSize * ySize];
+        int count = 0;
+        for (int x = 0; x < xSize; x++) {
+            for (int y = 0; y < ySize; y++) {
+                if (board.charAt(x, y) == '#') {
+                    states[x * ySize + y] = -1;
+                } else {
+                    spaces[count] = x * ySize + y;
+                    states[x * ySize + y] = count++;
+                }
+            }
+        }
+        this.spaces = Arrays.copyOf(spaces, count);
+    }
+
+    public int getXSize() {
+        return xSize;
+    }
+
+    public int getYSize() {
+        return ySize;
+    }
+
+    /**
+     * @return the number of states: the number of spaces of the board which are not walls
+     */
+    public int size() {
+        return spaces.length;
+    }
+
+    /**
+     * @param x (Integer) the x coordinate of the space
+     * @param y (Integer) the y coordinate of the space
+     * @return the state of the space, or -1 if it is a wall or out of bounds
+     */
+    public int stateOf(int x, int y) {
+        if (x >= xSize || x < 0 || y >= ySize || y < 0) {
+            return -1;
+        }
+        return states[x * ySize + y];
+    }
+
+    /**
+     * @param state (Integer) a state, in the range [0, size())
+     * @return the x coordinate of the space of the state
+     */
+    public int xOf(int state) {
+        return spaces[state] / ySize;
+    }
+
+    /**
+     * @param state (Integer) a state, in the range [0, size())
+     * @return the y coordinate of the space of the state
+     */
+    public int yOf(int state) {
+        return spaces[state] % ySize;
+    }
+}
@@ -0,0 +1,27 @@
+package racetrack;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event recorded for every call of Car.applyAcceleration(). There are millions of steps per second, so the event
+ * is disabled unless a recording enables it, and then only steps slower than the threshold are kept. Only recorded
+ * while Metrics.ENABLED is set.
+ */
+@Name("racetrack.Step")
+@Label("Vehicle Step")
+@Category("Racetrack")
+@Description("One acceleration, velocity and position update of a vehicle")
+@Enabled(false)
+@Threshold("10 us")
+public class StepEvent extends Event {
+
+    @Label("Ignored")
+    @Description("Whether the acceleration was ignored by the vehicle")
+    public boolean ignored;
+}
@@ -0,0 +1,67 @@
+package racetrack;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join task which sweeps a band of rows, splitting it in half until it is small enough to sweep directly. The
+ * task yields the largest value modification made within its band.
+ */
+public class SweepBand extends RecursiveTask<Double> {
+
+    private static final long serialVersionUID = 1L;
+    private static final int MIN_BAND_STATES = 4096; // smallest number of states a single fork-join task is worth sweeping
+
+    /**
+     * A solver's sweep over a range of rows, returning the largest value modification made within the range.
+     */
+    public interface Rows {
+        double sweep(int from, int to);
+    }
+
+    private final Rows rows; // the sweep applied to each band
+    private final int from; // the first row of the band
+    private final int to; // the row after the last row of the band
+    private final int bandRows; // the number of rows below which the band is swept directly instead of being split
+
+    /**
+     * Constructor for the SweepBand class.
+     *
+     * @param rows (Rows) the sweep applied to each band
+     * @param from (Integer) the first row of the band
+     * @param to (Integer) the row after the last row of the band
+     * @param bandRows (Integer) the number of rows below which the band is swept directly instead of being split
+     */
+    public SweepBand(Rows rows, int from, int to, int bandRows) {
+        this.rows = rows;
+        this.from = from;
+        this.to = to;
+        this.bandRows = bandRows;
+    }
+
+    /**
+     * Method determines how many rows a band should hold so that each worker of the pool receives a few bands, without
+     * making bands too small to be worth forking.
+     *
+     * @param pool (ForkJoinPool) the pool the sweep is executed on
+     * @param xSize (Integer) the number of rows swept
+     * @param rowStates (Integer) the number of states held by each row
+     * @return the number of rows below which a band is swept directly instead of being split
+     */
+    public static int bandRows(ForkJoinPool pool, int xSize, int rowStates) {
+        int rowsPerWorker = xSize / (pool.getParallelism() * 4);
+        return Math.max(1, Math.max(rowsPerWorker, MIN_BAND_STATES / rowStates));
+    }
+
+    @Override
+    protected Double compute() {
+        if (to - from <= bandRows) {
+            return rows.sweep(from, to);
+        }
+        int middle = (from + to) >>> 1;
+        SweepBand upper = new SweepBand(rows, from, middle, bandRows);
+        upper.fork();
+        double lower = new SweepBand(rows, middle, to, bandRows).compute();
+        return Math.max(upper.join(), lower);
+    }
+}
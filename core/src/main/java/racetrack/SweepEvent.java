@@ -0,0 +1,30 @@
+package racetrack;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event recorded for every synchronous sweep of ValueIteration and VelocityValueIteration; its duration is the
+ * duration of the sweep. Only recorded while Metrics.ENABLED is set.
+ */
+@Name("racetrack.Sweep")
+@Label("Value Iteration Sweep")
+@Category("Racetrack")
+@Description("One Bellman sweep over every state of a board")
+public class SweepEvent extends Event {
+
+    @Label("Sweep")
+    @Description("The number of sweeps completed before this one during the solve")
+    public int sweep;
+
+    @Label("States")
+    @Description("The number of states updated by the sweep")
+    public long states;
+
+    @Label("Residual")
+    @Description("The largest change made to any state by the sweep")
+    public double residual;
+}
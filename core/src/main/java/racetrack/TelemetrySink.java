@@ -0,0 +1,52 @@
+package racetrack;
+
+/**
+ * Receiver of the progress of a controller. Every callback takes primitive arguments only, so reporting a step never
+ * allocates; what is done with the information is up to the implementation.
+ */
+public interface TelemetrySink {
+
+    /**
+     * Called after the vehicle has applied an action and moved.
+     *
+     * @param time (Integer) the present time of the vehicle
+     * @param xAction (Integer) the acceleration requested on the x coordinate
+     * @param yAction (Integer) the acceleration requested on the y coordinate
+     * @param x (Integer) the new x coordinate of the vehicle
+     * @param y (Integer) the new y coordinate of the vehicle
+     */
+    void onStep(int time, int xAction, int yAction, int x, int y);
+
+    /**
+     * Called once the reward of the most recent step is known.
+     *
+     * @param time (Integer) the present time of the vehicle
+     * @param reward (Double) the reward of the step
+     */
+    void onReward(int time, double reward);
+
+    /**
+     * Called after the vehicle has collided and been moved back onto the track.
+     *
+     * @param time (Integer) the present time of the vehicle
+     * @param xCrash (Integer) the x coordinate the vehicle collided at
+     * @param yCrash (Integer) the y coordinate the vehicle collided at
+     * @param x (Integer) the x coordinate the vehicle was moved to
+     * @param y (Integer) the y coordinate the vehicle was moved to
+     */
+    void onReset(int time, int xCrash, int yCrash, int x, int y);
+
+    /**
+     * Called once before a value controller starts driving.
+     *
+     * @param valueTable (2D Double Array) the value table the controller drives by
+     */
+    default void onValueTable(double[][] valueTable) {
+    }
+
+    /**
+     * Called once no more steps will be reported, so that any buffered information can be flushed.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,229 @@
+package racetrack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Value table of every (x, y, xVelocity, yVelocity) state of a board, held outside of the Java heap so that it may be
+ * far larger than the heap and is never scanned by the garbage collector. The board is cut into square tiles of TILE
+ * by TILE spaces, and the values of all the velocity states of a tile are stored contiguously, so a sweep working
+ * through one tile at a time keeps reading the same few hundred kilobytes:
+ * <pre>
+ *     tile (x / TILE) * yTiles + y / TILE, then ((x % TILE) * TILE + y % TILE) * VELOCITY_STATES + velocity state
+ * </pre>
+ * Values are stored little-endian, as FLOAT (4 bytes) or DOUBLE (8 bytes) each, either in direct buffers or in a
+ * memory-mapped file. Tiles are slices of a few large buffers, each smaller than 1 GB. Every value starts at zero.
+ */
+public class TiledValueStore {
+
+    public static final int FLOAT = 4; // precision of a store holding 4-byte floats
+    public static final int DOUBLE = 8; // precision of a store holding 8-byte doubles
+    public static final int TILE = 16; // the width and height of a tile, in spaces
+    private static final int TILE_SHIFT = 4; // log2(TILE)
+    private static final long CHUNK_BYTES = 1L << 30; // the largest buffer tiles are sliced from, in bytes
+
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final int yTiles; // the number of tiles along the y coordinate
+    private final int tileStates; // the number of states of each tile
+    private final int valueBytes; // FLOAT or DOUBLE
+    private final ByteBuffer[] tiles; // the values of each tile
+    private final MappedByteBuffer[] mappings; // the mapped buffers the tiles are sliced from, or null if not mapped
+
+    private TiledValueStore(int xSize, int ySize, int valueBytes, ByteBuffer[] tiles, MappedByteBuffer[] mappings) {
+        this.xSize = xSize;
+        this.ySize = ySize;
+        this.valueBytes = valueBytes;
+        this.tiles = tiles;
+        this.mappings = mappings;
+        yTiles = tileCount(ySize);
+        tileStates = TILE * TILE * TransitionModel.VELOCITY_STATES;
+    }
+
+    /**
+     * Method allocates a store in direct buffers, which live outside of the heap but count towards
+     * -XX:MaxDirectMemorySize.
+     *
+     * @param xSize (Integer) the width of the track board
+     * @param ySize (Integer) the height of the track board
+     * @param valueBytes (Integer) FLOAT or DOUBLE
+     * @return the store, with every value at zero
+     */
+    public static TiledValueStore allocate(int xSize, int ySize, int valueBytes) {
+        checkPrecision(valueBytes);
+        int count = tileCount(xSize) * tileCount(ySize);
+        int tileBytes = TILE * TILE * TransitionModel.VELOCITY_STATES * valueBytes;
+        ByteBuffer[] tiles = new ByteBuffer[count];
+        int chunkTiles = (int) (CHUNK_BYTES / tileBytes);
+        for (int first = 0; first < count; first += chunkTiles) {
+            int length = Math.min(chunkTiles, count - first);
+            ByteBuffer chunk = ByteBuffer.allocateDirect(length * tileBytes);
+            for (int tile = 0; tile < length; tile++) {
+                tiles[first + tile] = chunk.slice(tile * tileBytes, tileBytes).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        return new TiledValueStore(xSize, ySize, valueBytes, tiles, null);
+    }
+
+    /**
+     * Method maps a store onto a file, which is created or resized as needed; its size is bounded by the disk rather
+     * than by memory, and the operating system pages tiles in and out as they are swept. The existing contents of a
+     * file of the right size are kept.
+     *
+     * @param file (Path) the file holding the values
+     * @param xSize (Integer) the width of the track board
+     * @param ySize (Integer) the height of the track board
+     * @param valueBytes (Integer) FLOAT or DOUBLE
+     * @return the store, backed by the file
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static TiledValueStore map(Path file, int xSize, int ySize, int valueBytes) throws IOException {
+        checkPrecision(valueBytes);
+        int count = tileCount(xSize) * tileCount(ySize);
+        int tileBytes = TILE * TILE * TransitionModel.VELOCITY_STATES * valueBytes;
+        int chunkTiles = (int) (CHUNK_BYTES / tileBytes);
+        ByteBuffer[] tiles = new ByteBuffer[count];
+        MappedByteBuffer[] mappings = new MappedByteBuffer[(count + chunkTiles - 1) / chunkTiles];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            for (int chunk = 0; chunk < mappings.length; chunk++) {
+                int first = chunk * chunkTiles;
+                int length = Math.min(chunkTiles, count - first);
+                // mapping past the end of the file extends it; the mapping stays valid once the channel is closed
+                mappings[chunk] = channel.map(FileChannel.MapMode.READ_WRITE, (long) first * tileBytes, (long) length * tileBytes);
+                for (int tile = 0; tile < length; tile++) {
+                    tiles[first + tile] = mappings[chunk].slice(tile * tileBytes, tileBytes).order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+        }
+        return new TiledValueStore(xSize, ySize, valueBytes, tiles, mappings);
+    }
+
+    private static void checkPrecision(int valueBytes) {
+        if (valueBytes != FLOAT && valueBytes != DOUBLE) {
+            throw new IllegalArgumentException("values must be 4 or 8 bytes wide: " + valueBytes);
+        }
+    }
+
+    private static int tileCount(int size) {
+        return (size + TILE - 1) >> TILE_SHIFT;
+    }
+
+    public int getXSize() {
+        return xSize;
+    }
+
+    public int getYSize() {
+        return ySize;
+    }
+
+    /**
+     * @return FLOAT or DOUBLE
+     */
+    public int getValueBytes() {
+        return valueBytes;
+    }
+
+    /**
+     * @return the number of tiles of the store
+     */
+    public int tileCount() {
+        return tiles.length;
+    }
+
+    /**
+     * @return the number of states held by each tile, including those past the edges of the board
+     */
+    public int tileStates() {
+        return tileStates;
+    }
+
+    /**
+     * @param tile (Integer) the index of the tile
+     * @return the x coordinate of the first space of the tile
+     */
+    public int tileX(int tile) {
+        return (tile / yTiles) << TILE_SHIFT;
+    }
+
+    /**
+     * @param tile (Integer) the index of the tile
+     * @return the y coordinate of the first space of the tile
+     */
+    public int tileY(int tile) {
+        return (tile % yTiles) << TILE_SHIFT;
+    }
+
+    /**
+     * Method returns the value of a state.
+     *
+     * @param x (Integer) the x coordinate of the vehicle
+     * @param y (Integer) the y coordinate of the vehicle
+     * @param xVelocity (Integer) the x velocity of the vehicle, in the range [-5, 5]
+     * @param yVelocity (Integer) the y velocity of the vehicle, in the range [-5, 5]
+     * @return the value of the state
+     */
+    public double get(int x, int y, int xVelocity, int yVelocity) {
+        ByteBuffer tile = tiles[(x >> TILE_SHIFT) * yTiles + (y >> TILE_SHIFT)];
+        int index = offsetOf(x, y, xVelocity, yVelocity);
+        return valueBytes == FLOAT ? tile.getFloat(index << 2) : tile.getDouble(index << 3);
+    }
+
+    /**
+     * Method replaces the value of a state.
+     *
+     * @param x (Integer) the x coordinate of the vehicle
+     * @param y (Integer) the y coordinate of the vehicle
+     * @param xVelocity (Integer) the x velocity of the vehicle, in the range [-5, 5]
+     * @param yVelocity (Integer) the y velocity of the vehicle, in the range [-5, 5]
+     * @param value (Double) the new value, rounded to a float by FLOAT stores
+     */
+    public void set(int x, int y, int xVelocity, int yVelocity, double value) {
+        ByteBuffer tile = tiles[(x >> TILE_SHIFT) * yTiles + (y >> TILE_SHIFT)];
+        int index = offsetOf(x, y, xVelocity, yVelocity);
+        if (valueBytes == FLOAT) {
+            tile.putFloat(index << 2, (float) value);
+        } else {
+            tile.putDouble(index << 3, value);
+        }
+    }
+
+    /**
+     * Method calculates the position of a state within its tile.
+     */
+    private static int offsetOf(int x, int y, int xVelocity, int yVelocity) {
+        int space = ((x & (TILE - 1)) << TILE_SHIFT) + (y & (TILE - 1));
+        return (space * TransitionModel.VELOCITIES + xVelocity + TransitionModel.MAX_SPEED) * TransitionModel.VELOCITIES
+                + yVelocity + TransitionModel.MAX_SPEED;
+    }
+
+    /**
+     * Method copies every value of another store of the same board and precision into this one.
+     *
+     * @param other (TiledValueStore) the store copied from
+     */
+    public void copyFrom(TiledValueStore other) {
+        if (other.xSize != xSize || other.ySize != ySize || other.valueBytes != valueBytes) {
+            throw new IllegalArgumentException("the stores hold different tables");
+        }
+        for (int tile = 0; tile < tiles.length; tile++) {
+            tiles[tile].put(0, other.tiles[tile], 0, other.tiles[tile].capacity());
+        }
+    }
+
+    /**
+     * Method writes any changed values of a mapped store back to its file; stores in direct buffers are unaffected.
+     */
+    public void force() {
+        if (mappings != null) {
+            for (MappedByteBuffer mapping : mappings) {
+                mapping.force();
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package racetrack;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Velocity-aware value iteration for boards whose state space is too large for the heap. VelocityValueIteration needs
+ * a compiled TransitionModel, which lists every successor of every action of every state, and float tables indexed by
+ * int; on a 2000 by 2000 board with 121 velocity states per space, that is hundreds of millions of states and tens of
+ * gigabytes of model. This solver instead derives the successors of each state from the board during the backup,
+ * exactly as TransitionModel.compileVelocities() lays them out, and keeps its value tables in TiledValueStores outside
+ * of the heap. Sweeps work through one tile at a time, in parallel, so the values a backup reads are nearly always in
+ * the tile being swept.
+ * <p>
+ * With FLOAT stores and totalReset disabled, the values are identical to those of VelocityValueIteration. With
+ * totalReset enabled, both average the expected value of restarting once per sweep, but VelocityValueIteration keeps
+ * it in its float table, so values may differ by rounding.
+ */
+public class TiledVelocityValueIteration {
+    private final ForkJoinPool pool; // the pool each sweep is split across
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final byte[] spaces; // the type of each space, indexed by x * ySize + y
+    private final OpenSpaceIndex openSpaces; // where a vehicle stops after a collision, when totalReset is disabled
+    private final int[] startingSpaces; // where a vehicle restarts after a collision, when totalReset is enabled
+    private final boolean totalReset; // state determining whether the vehicle will return to origin upon collision
+    private final double gamma; // constant which modifies the impact of look-ahead states
+    private final int bandTiles; // the number of tiles below which a band is swept directly instead of being split
+    private final long activeStates; // the number of states updated by each sweep
+    private TiledValueStore previous; // the previous state of the value table
+    private TiledValueStore current; // the current state of the value table
+    private double restart; // the expected value of restarting from a random starting space, over the previous table
+
+    private static final long RESTART = -1; // the successor of a collision when totalReset is enabled
+    private static final Metrics.Counter SWEEPS = Metrics.counter("tiledValueIteration.sweeps");
+    private static final Metrics.Histogram SWEEP_NANOS = Metrics.histogram("tiledValueIteration.sweepNanos");
+    private static final Metrics.Gauge RESIDUAL = Metrics.gauge("tiledValueIteration.residual");
+
+    /**
+     * Constructor for the TiledVelocityValueIteration class, with value tables in direct buffers; sweeps are executed
+     * on the common fork-join pool.
+     *
+     * @param board (Board) the game board
+     * @param gamma (Double) constant in the range [0, 1] which modifies the impact of look-ahead states
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param valueBytes (Integer) TiledValueStore.FLOAT or TiledValueStore.DOUBLE
+     */
+    public TiledVelocityValueIteration(Board board, double gamma, boolean totalReset, int valueBytes) {
+        this(board, gamma, totalReset, TiledValueStore.allocate(board.getXSize(), board.getYSize(), valueBytes),
+                TiledValueStore.allocate(board.getXSize(), board.getYSize(), valueBytes), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for the TiledVelocityValueIteration class. The two stores are swept into one another, and must hold
+     * the same values to begin with; new stores, which hold zeros, do. Pass stores from TiledValueStore.map() to solve
+     * boards whose tables do not fit in memory.
+     *
+     * @param board (Board) the game board
+     * @param gamma (Double) constant in the range [0, 1] which modifies the impact of look-ahead states
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param previous (TiledValueStore) the first of the two value tables
+     * @param current (TiledValueStore) the second of the two value tables, which holds the result after solve()
+     * @param pool (ForkJoinPool) the pool the tile bands of each sweep are executed on
+     */
+    public TiledVelocityValueIteration(Board board, double gamma, boolean totalReset, TiledValueStore previous,
+                                       TiledValueStore current, ForkJoinPool pool) {
+        if (previous.getXSize() != board.getXSize() || previous.getYSize() != board.getYSize()
+                || current.getXSize() != board.getXSize() || current.getYSize() != board.getYSize()
+                || previous.getValueBytes() != current.getValueBytes()) {
+            throw new IllegalArgumentException("the stores do not fit the board");
+        }
+        this.gamma = gamma;
+        this.totalReset = totalReset;
+        this.previous = previous;
+        this.current = current;
+        this.pool = pool;
+        xSize = board.getXSize();
+        ySize = board.getYSize();
+        spaces = TransitionModel.classify(board);
+        openSpaces = new OpenSpaceIndex(board);
+        bandTiles = SweepBand.bandRows(pool, current.tileCount(), current.tileStates());
+
+        int starts = 0;
+        long active = 0;
+        for (byte space : spaces) {
+            starts += space == TransitionModel.START ? 1 : 0;
+            active += space == TransitionModel.WALL || space == TransitionModel.FINISH ? 0 : TransitionModel.VELOCITY_STATES;
+        }
+        activeStates = active;
+        startingSpaces = new int[starts];
+        for (int space = 0, start = 0; space < spaces.length; space++) {
+            if (spaces[space] == TransitionModel.START) {
+                startingSpaces[start++] = space;
+            }
+        }
+    }
+
+    /**
+     * Method repeats parallel Bellman sweeps over the state space until the largest change made by a sweep no longer
+     * exceeds the provided threshold.
+     *
+     * @param threshold (Double) difference threshold which determines when the state values have converged
+     * @return the store holding the value of each state
+     */
+    public TiledValueStore solve(double threshold) {
+        TiledValueStore swap;
+        int sweeps = 0;
+        do {
+            // walls and finish spaces are never written, so both tables always agree on them and no copy is required
+            swap = previous;
+            previous = current;
+            current = swap;
+        } while (sweep(sweeps++) > threshold); // check for convergence
+
+        return current;
+    }
+
+    /**
+     * Method runs one parallel sweep over the state space, measuring it when metrics are enabled.
+     *
+     * @param sweep (Integer) the number of sweeps completed before this one
+     * @return the largest value modification made by the sweep
+     */
+    private double sweep(int sweep) {
+        restart = restartValue(previous);
+        if (!Metrics.ENABLED) {
+            return pool.invoke(new SweepBand(this::sweepTiles, 0, current.tileCount(), bandTiles));
+        }
+        SweepEvent event = new SweepEvent();
+        event.begin();
+        long start = System.nanoTime();
+        double residual = pool.invoke(new SweepBand(this::sweepTiles, 0, current.tileCount(), bandTiles));
+        SWEEP_NANOS.record(System.nanoTime() - start);
+        SWEEPS.increment();
+        RESIDUAL.set(residual);
+        event.sweep = sweep;
+        event.states = activeStates;
+        event.residual = residual;
+        event.commit();
+        return residual;
+    }
+
+    /**
+     * Method returns the value of a state after solve() has been called.
+     *
+     * @param x (Integer) the x coordinate of the vehicle
+     * @param y (Integer) the y coordinate of the vehicle
+     * @param xVelocity (Integer) the x velocity of the vehicle, in the range [-5, 5]
+     * @param yVelocity (Integer) the y velocity of the vehicle, in the range [-5, 5]
+     * @return the value of the state
+     */
+    public double valueOf(int x, int y, int xVelocity, int yVelocity) {
+        return current.get(x, y, xVelocity, yVelocity);
+    }
+
+    /**
+     * Method determines the action which maximizes the expected value of a state, encoded as (i + 1) * 3 + (j + 1) for
+     * an acceleration of i on the x coordinate and j on the y coordinate.
+     *
+     * @param x (Integer) the x coordinate of the vehicle
+     * @param y (Integer) the y coordinate of the vehicle
+     * @param xVelocity (Integer) the x velocity of the vehicle, in the range [-5, 5]
+     * @param yVelocity (Integer) the y velocity of the vehicle, in the range [-5, 5]
+     * @return the encoded best action, or 4 (no acceleration) on walls and the finish line
+     */
+    public int bestAction(int x, int y, int xVelocity, int yVelocity) {
+        byte space = spaces[x * ySize + y];
+        if (space == TransitionModel.WALL || space == TransitionModel.FINISH) {
+            return 4;
+        }
+        int best = 4;
+        double max = Double.NEGATIVE_INFINITY;
+        double restart = restartValue(current);
+        long ignored = successor(x, y, xVelocity, yVelocity);
+        double ignoredValue = valueOf(current, restart, ignored);
+        for (int i = -1; i <= 1; i++) {
+            for (int j = -1; j <= 1; j++) {
+                long applied = successor(x, y, TransitionModel.clamp(xVelocity + i), TransitionModel.clamp(yVelocity + j));
+                double value = actionValue(current, restart, applied, ignored, ignoredValue);
+                if (value > max) {
+                    max = value;
+                    best = (i + 1) * 3 + (j + 1);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Method updates every state within a range of tiles, then returns the largest value modification made within it.
+     *
+     * @param from (Integer) the first tile of the range
+     * @param to (Integer) the tile after the last tile of the range
+     * @return the largest difference between a current state in the range and its corresponding previous state
+     */
+    private double sweepTiles(int from, int to) {
+        boolean rounded = current.getValueBytes() == TiledValueStore.FLOAT;
+        double max = 0;
+        for (int tile = from; tile < to; tile++) {
+            int xFirst = current.tileX(tile);
+            int yFirst = current.tileY(tile);
+            for (int x = xFirst; x < Math.min(xFirst + TiledValueStore.TILE, xSize); x++) {
+                for (int y = yFirst; y < Math.min(yFirst + TiledValueStore.TILE, ySize); y++) {
+                    byte space = spaces[x * ySize + y];
+                    if (space == TransitionModel.WALL || space == TransitionModel.FINISH) { // never occupied, or terminal
+                        continue;
+                    }
+                    for (int xVelocity = -TransitionModel.MAX_SPEED; xVelocity <= TransitionModel.MAX_SPEED; xVelocity++) {
+                        for (int yVelocity = -TransitionModel.MAX_SPEED; yVelocity <= TransitionModel.MAX_SPEED; yVelocity++) {
+                            double value = bestValue(x, y, xVelocity, yVelocity);
+                            value = rounded ? (float) value : value; // the value the store will hold
+                            current.set(x, y, xVelocity, yVelocity, value);
+                            max = Math.max(max, Math.abs(value - previous.get(x, y, xVelocity, yVelocity)));
+                        }
+                    }
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Method calculates the largest expected action value available from a state, over the previous table.
+     */
+    private double bestValue(int x, int y, int xVelocity, int yVelocity) {
+        double max = Double.NEGATIVE_INFINITY;
+        long ignored = successor(x, y, xVelocity, yVelocity); // the same for every action
+        double ignoredValue = valueOf(previous, restart, ignored);
+        for (int i = -1; i <= 1; i++) {
+            for (int j = -1; j <= 1; j++) {
+                long applied = successor(x, y, TransitionModel.clamp(xVelocity + i), TransitionModel.clamp(yVelocity + j));
+                max = Math.max(max, actionValue(previous, restart, applied, ignored, ignoredValue));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Method calculates the value of an action from its two outcomes. As in TransitionModel, outcomes which lead to
+     * the same state are merged before they are summed, so the values are identical.
+     */
+    private double actionValue(TiledValueStore values, double restart, long applied, long ignored, double ignoredValue) {
+        double total = 0;
+        if (applied == ignored) {
+            total += (TransitionModel.APPLIED + TransitionModel.IGNORED) * ignoredValue;
+        } else {
+            total += TransitionModel.APPLIED * valueOf(values, restart, applied);
+            total += TransitionModel.IGNORED * ignoredValue;
+        }
+        return TransitionModel.STEP_REWARD + (gamma * total);
+    }
+
+    /**
+     * Method calculates the expected value of restarting from a random starting space.
+     */
+    private double restartValue(TiledValueStore values) {
+        double total = 0;
+        for (int start : startingSpaces) {
+            total += values.get(start / ySize, start % ySize, 0, 0) / startingSpaces.length;
+        }
+        return total;
+    }
+
+    /**
+     * Method determines the state a vehicle ends up in after moving from a space with a given velocity, packed as
+     * x << 40 | y << 16 | (xVelocity + 5) << 8 | (yVelocity + 5), or RESTART if it returns to a random starting space.
+     */
+    private long successor(int x, int y, int xVelocity, int yVelocity) {
+        int xNext = x + xVelocity;
+        int yNext = y + yVelocity;
+        if (xNext >= 0 && xNext < xSize && yNext >= 0 && yNext < ySize && spaces[xNext * ySize + yNext] != TransitionModel.WALL) {
+            return pack(xNext, yNext, xVelocity, yVelocity);
+        } else if (!totalReset) { // the vehicle stops on the open space nearest to the collision
+            int nearest = openSpaces.nearest(xNext, yNext, x, y);
+            return pack(nearest / ySize, nearest % ySize, 0, 0);
+        } else { // every starting space is equally likely
+            return RESTART;
+        }
+    }
+
+    private static long pack(int x, int y, int xVelocity, int yVelocity) {
+        return (long) x << 40 | (long) y << 16 | (xVelocity + TransitionModel.MAX_SPEED) << 8 | (yVelocity + TransitionModel.MAX_SPEED);
+    }
+
+    /**
+     * Method returns the value of a state packed by successor().
+     */
+    private static double valueOf(TiledValueStore values, double restart, long state) {
+        if (state == RESTART) {
+            return restart;
+        }
+        return values.get((int) (state >>> 40), (int) (state >>> 16) & 0xFFFFFF,
+                ((int) state >>> 8 & 0xFF) - TransitionModel.MAX_SPEED, ((int) state & 0xFF) - TransitionModel.MAX_SPEED);
+    }
+}
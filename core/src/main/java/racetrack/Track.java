@@ -0,0 +1,301 @@
+package racetrack;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+public class Track implements Board {
+
+    private final SplittableRandom random; // source of the starting space of each episode
+
+    protected char[][] board; // the n x m array which contain characters which represent the driving track, or null for packed tracks
+    private PackedTrackFile packed; // the mapped board of a packed track, or null for text tracks
+    private int xSize; // the width of the track board
+    private int ySize; // the height of the track board
+    protected Car car; // the vehicle which will be traversing the track
+    private ArrayList<int[]> startingCoordinates; // the coordinates of every starting space on the track
+    private TransitionModel spaceModel; // compiled space-to-space model of the board, built on first use
+    private long contentHash; // hash of the size and spaces of the board, computed on first use
+    private OpenSpaceIndex openSpaces; // nearest open space to every collision position, built on first use
+    private StateIndex states; // dense numbering of the spaces which are not walls, built on first use
+    private double[] rewardMatrix; // shaped reward of each space for Q-learning, built on first use
+    private final TransitionModel[] velocityModels = new TransitionModel[2]; // compiled velocity-aware models, by reset behavior
+
+    /**
+     * Constructor for the Track class. takes in the file name of a compatible .txt file and converts it into a two
+     * dimensional character array. This array is then stored as the board variable of the instance.
+     *
+     * @param fileName (String) the file name of a .txt file with an "int,int" format on the first line, dictating the
+     *                 x and y scale of the track, followed by a text representation of the track.
+     * @throws IOException Throws an IOException if the provided file cannot be read properly.
+     */
+    public Track(String fileName) throws IOException {
+        this(fileName, new SplittableRandom());
+    }
+
+    /**
+     * Constructor for the Track class. takes in the file name of a compatible .txt file and converts it into a two
+     * dimensional character array, along with the random stream which selects starting spaces. The vehicle is given a
+     * stream split from it, so everything random about the track can be reproduced from a single seed. Files ending in
+     * PackedTrackFile.EXTENSION are memory-mapped instead, and never materialised as a character array.
+     *
+     * @param fileName (String) the file name of a .txt file with an "int,int" format on the first line, dictating the
+     *                 x and y scale of the track, followed by a text representation of the track.
+     * @param random (SplittableRandom) random stream owned by the track
+     * @throws IOException Throws an IOException if the provided file cannot be read properly.
+     */
+    public Track(String fileName, SplittableRandom random) throws IOException {
+        this.random = random;
+        startingCoordinates = new ArrayList<>();
+        if (fileName.endsWith(PackedTrackFile.EXTENSION)) {
+            packed = PackedTrackFile.open(fileName);
+            xSize = packed.getXSize();
+            ySize = packed.getYSize();
+            int[] starts = packed.getStarts();
+            for (int i = 0; i < starts.length; i += 2) {
+                startingCoordinates.add(new int[] {starts[i], starts[i + 1]});
+            }
+        } else {
+            readText(fileName);
+        }
+
+        int[] start = startingCoordinates.get(random.nextInt(startingCoordinates.size()));
+        car = new Car(start[0], start[1], random.split());
+    }
+
+    /**
+     * Method reads a text track into the board character matrix.
+     *
+     * @param fileName (String) the file name of a .txt file in the format described by the constructor
+     * @throws IOException Throws an IOException if the provided file cannot be read properly.
+     */
+    private void readText(String fileName) throws IOException {
+        BufferedReader in = new BufferedReader(new FileReader(new File(fileName))); // open the target file
+
+        // get the size of the track from the first line of the file
+        String[] coordinateInformation = in.readLine().split(",");
+        xSize = Integer.parseInt(coordinateInformation[0]);
+        ySize = Integer.parseInt(coordinateInformation[1]);
+
+        // instantiate and fill the board as a character matrix
+        String line;
+        board = new char[xSize][ySize];
+        for (int i = 0; i < xSize; i++) { // each row of the track
+            line = in.readLine();
+            for (int j = 0; j < ySize; j++) { // each character of the row
+                board[i][j] = line.charAt(j);
+                if (board[i][j] == 'S') {
+                    startingCoordinates.add(new int[] {i, j});
+                }
+            }
+        }
+        in.close();
+    }
+
+    /**
+     * Constructor for the Track class which shares the board of an already loaded track, along with anything compiled
+     * from it, but places a vehicle of its own on a randomly selected starting space. Copies may be driven on from
+     * different threads at the same time.
+     *
+     * @param other (Track) the loaded track
+     */
+    public Track(Track other) {
+        this(other, new SplittableRandom());
+    }
+
+    /**
+     * Constructor for the Track class which shares the board of an already loaded track, along with anything compiled
+     * from it, but places a vehicle of its own on a randomly selected starting space. Copies may be driven on from
+     * different threads at the same time, each from its own random stream.
+     *
+     * @param other (Track) the loaded track
+     * @param random (SplittableRandom) random stream owned by the copy
+     */
+    public Track(Track other, SplittableRandom random) {
+        this.random = random;
+        board = other.board;
+        packed = other.packed;
+        xSize = other.xSize;
+        ySize = other.ySize;
+        startingCoordinates = other.startingCoordinates;
+        synchronized (other) { // anything already compiled is shared; the rest is built on first use
+            contentHash = other.contentHash;
+            spaceModel = other.spaceModel;
+            openSpaces = other.openSpaces;
+            states = other.states;
+            rewardMatrix = other.rewardMatrix;
+            System.arraycopy(other.velocityModels, 0, velocityModels, 0, velocityModels.length);
+        }
+
+        int[] start = startingCoordinates.get(random.nextInt(startingCoordinates.size()));
+        car = new Car(start[0], start[1], random.split());
+    }
+
+    /**
+     * Method begins a new episode on the same board: the vehicle is moved to a randomly selected starting space, at
+     * rest, and its time starts over.
+     */
+    public void newEpisode() {
+        int[] start = startingCoordinates.get(random.nextInt(startingCoordinates.size()));
+        car.restart(start[0], start[1]);
+    }
+
+    @Override
+    public int getXSize() {
+        return xSize;
+    }
+
+    @Override
+    public int getYSize() {
+        return ySize;
+    }
+
+    @Override
+    public char charAt(int x, int y) {
+        return board != null ? board[x][y] : packed.charAt(x, y);
+    }
+
+    /**
+     * Method returns the type of a space, reading it straight from the board. Spaces out of bounds are treated as
+     * walls.
+     *
+     * @param x (Integer) the x coordinate
+     * @param y (Integer) the y coordinate
+     * @return TransitionModel.WALL, OPEN, START or FINISH
+     */
+    public byte spaceAt(int x, int y) {
+        if (x >= xSize || x < 0 || y >= ySize || y < 0) {
+            return TransitionModel.WALL;
+        }
+        if (packed != null) {
+            return packed.spaceAt(x, y);
+        }
+        switch (board[x][y]) {
+            case '#': return TransitionModel.WALL;
+            case 'S': return TransitionModel.START;
+            case 'F': return TransitionModel.FINISH;
+            default: return TransitionModel.OPEN;
+        }
+    }
+
+    /**
+     * Method returns a 64-bit FNV-1a hash of the size and every space of the board, computing it on the first call.
+     * Tracks with identical boards have identical hashes, whichever file or format they were read from.
+     *
+     * @return the content hash of the board
+     */
+    public synchronized long contentHash() {
+        if (contentHash == 0) {
+            long hash = 0xcbf29ce484222325L;
+            hash = (hash ^ xSize) * 0x100000001b3L;
+            hash = (hash ^ ySize) * 0x100000001b3L;
+            for (int i = 0; i < xSize; i++) {
+                for (int j = 0; j < ySize; j++) {
+                    hash = (hash ^ charAt(i, j)) * 0x100000001b3L;
+                }
+            }
+            contentHash = hash == 0 ? 1 : hash; // 0 marks a hash which has not been computed
+        }
+        return contentHash;
+    }
+
+    /**
+     * Method returns the compiled space-to-space model of the board, compiling it on the first call. The model is shared
+     * by every solver and controller using this track.
+     *
+     * @return the space-to-space model of the board
+     */
+    public synchronized TransitionModel spaceModel() {
+        if (spaceModel == null) {
+            spaceModel = TransitionModel.compileSpaces(this);
+        }
+        return spaceModel;
+    }
+
+    /**
+     * Method returns the index of the nearest open space to every collision position, building it on the first call.
+     * The index is shared by every controller using this track.
+     *
+     * @return the open space index of the board
+     */
+    public synchronized OpenSpaceIndex openSpaceIndex() {
+        if (openSpaces == null) {
+            openSpaces = new OpenSpaceIndex(this);
+        }
+        return openSpaces;
+    }
+
+    /**
+     * Method returns the dense numbering of the spaces of the board which are not walls, building it on the first call.
+     * The index is shared by every controller using this track.
+     *
+     * @return the state index of the board
+     */
+    public synchronized StateIndex stateIndex() {
+        if (states == null) {
+            states = new StateIndex(this);
+        }
+        return states;
+    }
+
+    /**
+     * Method returns the shaped reward matrix used by Q-learning, building it on the first call. The matrix is shared
+     * by every controller using this track, and must never be modified.
+     *
+     * @return the reward of each space, indexed by x * ySize + y, see RewardShaping.buildRewardMatrix()
+     */
+    public synchronized double[] rewardMatrix() {
+        if (rewardMatrix == null) {
+            rewardMatrix = RewardShaping.buildRewardMatrix(this);
+        }
+        return rewardMatrix;
+    }
+
+    /**
+     * Method returns the compiled velocity-aware model of the board, compiling it on the first call for the provided
+     * reset behavior. The model is shared by every solver and controller using this track.
+     *
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @return the velocity-aware model of the board
+     */
+    public synchronized TransitionModel velocityModel(boolean totalReset) {
+        int index = totalReset ? 1 : 0;
+        if (velocityModels[index] == null) {
+            velocityModels[index] = TransitionModel.compileVelocities(this, totalReset);
+        }
+        return velocityModels[index];
+    }
+
+    /**
+     * Method prints out a visual representation of the track to the console.
+     */
+    public void printTrack() {
+        StringBuilder out = new StringBuilder((xSize + 1) * (ySize * 2 + 1));
+        render(out, car.x, car.y);
+        System.out.print(out);
+    }
+
+    /**
+     * Method appends a visual representation of the track to a buffer, with the vehicle drawn at the provided position.
+     *
+     * @param out (StringBuilder) the buffer the track is appended to
+     * @param x (Integer) the x coordinate the vehicle is drawn at
+     * @param y (Integer) the y coordinate the vehicle is drawn at
+     */
+    public void render(StringBuilder out, int x, int y) {
+        for (int i = 0; i < xSize; i++) {
+            for (int j = 0; j < ySize; j++) {
+                if (!(i == x && j == y)) {
+                    out.append(charAt(i, j)).append(' ');
+                } else {
+                    out.append('C').append(' ');
+                }
+            }
+            out.append('\n');
+        }
+    }
+
+}
@@ -0,0 +1,216 @@
+package racetrack;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads back a file written by TrajectoryRecorder, one step at a time. The file is streamed through a single reusable
+ * buffer, so recordings of any length can be read without holding them in memory, and moving to the next step does
+ * not allocate. A new episode begins wherever the time of a step is not greater than the time of the step before it.
+ * <p>
+ * Run as a program, it replays a recording to the console:
+ * <pre>
+ *     java racetrack.TrajectoryReader trajectory [track]
+ * </pre>
+ * printing each step, and the track with the vehicle drawn on it when a track file is provided, followed by a summary.
+ */
+public class TrajectoryReader implements Closeable {
+
+    private final FileChannel channel; // the file being read
+    private final ByteBuffer buffer; // the records read from the file but not yet visited
+    private int offset = -TrajectoryRecorder.RECORD; // offset of the current record in the buffer
+    private boolean exhausted; // set once the end of the file has been read into the buffer
+
+    private TrajectoryReader(FileChannel channel, int records) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocateDirect(records * TrajectoryRecorder.RECORD).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.limit(0);
+    }
+
+    /**
+     * Method opens a trajectory file and checks its header.
+     *
+     * @param file (Path) the file written by a TrajectoryRecorder
+     * @return a reader positioned before the first step
+     * @throws IOException Throws an IOException if the file cannot be read or is not a trajectory.
+     */
+    public static TrajectoryReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(TrajectoryRecorder.HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        int read = 0;
+        while (header.hasRemaining() && read >= 0) {
+            read = channel.read(header);
+        }
+        if (header.hasRemaining() || header.getInt(0) != TrajectoryRecorder.MAGIC
+                || header.getInt(4) != TrajectoryRecorder.VERSION || header.getInt(8) != TrajectoryRecorder.RECORD) {
+            channel.close();
+            throw new IOException(file + " is not a trajectory");
+        }
+        return new TrajectoryReader(channel, 4096);
+    }
+
+    /**
+     * Method moves to the next step of the recording.
+     *
+     * @return true if there is a next step, false at the end of the recording
+     * @throws IOException Throws an IOException if the file cannot be read.
+     */
+    public boolean next() throws IOException {
+        offset += TrajectoryRecorder.RECORD;
+        if (offset + TrajectoryRecorder.RECORD <= buffer.limit()) {
+            return true;
+        }
+        buffer.position(offset).compact(); // keeps a partially read record
+        while (!exhausted && buffer.position() < TrajectoryRecorder.RECORD) {
+            exhausted = channel.read(buffer) < 0;
+        }
+        buffer.flip();
+        offset = 0;
+        return buffer.limit() >= TrajectoryRecorder.RECORD;
+    }
+
+    /**
+     * @return the time of the vehicle after the step
+     */
+    public int getTime() {
+        return buffer.getInt(offset);
+    }
+
+    /**
+     * @return the x coordinate the step moved the vehicle to, before any collision was handled
+     */
+    public int getX() {
+        return buffer.getShort(offset + 4);
+    }
+
+    /**
+     * @return the y coordinate the step moved the vehicle to, before any collision was handled
+     */
+    public int getY() {
+        return buffer.getShort(offset + 6);
+    }
+
+    /**
+     * @return the x coordinate of the vehicle once the step was over: where it was moved to after a collision
+     */
+    public int getXReset() {
+        return buffer.getShort(offset + 8);
+    }
+
+    /**
+     * @return the y coordinate of the vehicle once the step was over: where it was moved to after a collision
+     */
+    public int getYReset() {
+        return buffer.getShort(offset + 10);
+    }
+
+    /**
+     * @return the x velocity the step moved the vehicle with
+     */
+    public int getXVelocity() {
+        return buffer.get(offset + 12);
+    }
+
+    /**
+     * @return the y velocity the step moved the vehicle with
+     */
+    public int getYVelocity() {
+        return buffer.get(offset + 13);
+    }
+
+    /**
+     * @return the acceleration requested on the x coordinate
+     */
+    public int getXAction() {
+        return buffer.get(offset + 14);
+    }
+
+    /**
+     * @return the acceleration requested on the y coordinate
+     */
+    public int getYAction() {
+        return buffer.get(offset + 15);
+    }
+
+    /**
+     * @return true if the requested acceleration was ignored
+     */
+    public boolean isIgnored() {
+        return (buffer.get(offset + 16) & TrajectoryRecorder.IGNORED) != 0;
+    }
+
+    /**
+     * @return true if the vehicle collided, and was moved back onto the track
+     */
+    public boolean isReset() {
+        return (buffer.get(offset + 16) & TrajectoryRecorder.RESET) != 0;
+    }
+
+    /**
+     * @return the reward of the step, or NaN if the controller did not report one
+     */
+    public double getReward() {
+        return buffer.getDouble(offset + 24);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Method replays a recording to the console.
+     *
+     * @param args (String Array) the trajectory file, and optionally the track file it was recorded on
+     * @throws IOException Throws an IOException if either file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        Track track = args.length > 1 ? new Track(args[1]) : null;
+        long steps = 0;
+        long episodes = 0;
+        long ignored = 0;
+        long resets = 0;
+        int time = Integer.MAX_VALUE;
+        StringBuilder out = new StringBuilder();
+        try (TrajectoryReader reader = open(Path.of(args[0]))) {
+            while (reader.next()) {
+                if (reader.getTime() <= time) {
+                    episodes++;
+                    out.append("Episode ").append(episodes).append('\n');
+                }
+                time = reader.getTime();
+                steps++;
+                ignored += reader.isIgnored() ? 1 : 0;
+                resets += reader.isReset() ? 1 : 0;
+
+                out.append(time).append(": (").append(reader.getX()).append(", ").append(reader.getY())
+                        .append(") velocity (").append(reader.getXVelocity()).append(", ").append(reader.getYVelocity())
+                        .append(") action (").append(reader.getXAction()).append(", ").append(reader.getYAction())
+                        .append(')');
+                if (reader.isIgnored()) {
+                    out.append(" ignored");
+                }
+                if (!Double.isNaN(reader.getReward())) {
+                    out.append(" reward ").append(reader.getReward());
+                }
+                if (reader.isReset()) {
+                    out.append(" reset to (").append(reader.getXReset()).append(", ").append(reader.getYReset())
+                            .append(')');
+                }
+                out.append('\n');
+                if (track != null) {
+                    track.render(out, reader.getXReset(), reader.getYReset());
+                }
+                System.out.print(out);
+                out.setLength(0);
+            }
+        }
+        System.out.println(steps + " steps in " + episodes + " episodes, " + resets + " resets, "
+                + ignored + " ignored actions");
+    }
+}
@@ -0,0 +1,209 @@
+package racetrack;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Telemetry sink which records every step of the vehicle as a fixed-width binary record, for TrajectoryReader to read
+ * back offline. Records are encoded into a small pool of reusable direct buffers; whenever one fills up it is handed to
+ * a background thread, which writes it to the file through a FileChannel while the controller keeps filling the next.
+ * The calling thread never allocates and never touches the file. Unlike AsyncTelemetrySink, no step is ever dropped, as
+ * a recording with gaps cannot be replayed: if the writer falls behind and no buffer is free, the controller waits for
+ * one, and the wait is counted. An interrupt does not cut the wait short; it is kept for the caller to handle.
+ * Coordinates are recorded as shorts, so boards wider or taller than 32767 spaces cannot be recorded.
+ * <p>
+ * A file consists of a little-endian header followed by one record per step. The velocity, and whether the requested
+ * acceleration was ignored, are read from the vehicle of the track when the step is reported; the reward, and the space
+ * the vehicle was moved to after a collision, are filled into the record as they are reported. The reward is NaN for
+ * controllers which do not report one.
+ * <pre>
+ *     int magic, int version, int record size
+ *     int time, short x, short y, short xReset, short yReset, byte xVelocity, byte yVelocity, byte xAction,
+ *     byte yAction, byte flags, 7 bytes padding, double reward
+ * </pre>
+ */
+public class TrajectoryRecorder implements TelemetrySink {
+
+    static final int MAGIC = 0x4a525452; // "RTRJ" in little-endian order
+    static final int VERSION = 1;
+    static final int HEADER = 12; // size of the header, in bytes
+    static final int RECORD = 32; // size of a record, in bytes
+    static final byte IGNORED = 1; // flag set when the requested acceleration was ignored
+    static final byte RESET = 2; // flag set when the vehicle collided and was moved back onto the track
+    private static final long IDLE_NANOS = 1_000_000; // how long the writer waits for a full buffer
+
+    private final Track track; // the track whose vehicle is recorded
+    private final FileChannel channel; // the file the records are written to
+    private final ArrayBlockingQueue<ByteBuffer> free; // buffers ready to be filled
+    private final ArrayBlockingQueue<ByteBuffer> full; // buffers waiting to be written, in order
+    private final Thread writer; // the background thread which writes full buffers
+    private ByteBuffer current; // the buffer being filled, or null until the next step claims one
+    private int last = -1; // offset of the most recent record in the current buffer, or -1 if there is none
+    private long stalls; // the number of times the controller waited for a buffer to be written
+    private volatile boolean closed; // set once no more buffers will be handed to the writer
+    private volatile IOException failure; // the first error met by the writer, if any
+
+    /**
+     * Constructor for the TrajectoryRecorder class, with four buffers of 16384 records each.
+     *
+     * @param track (Track) the track whose vehicle is recorded
+     * @param file (Path) the file to record to, which is replaced if it exists
+     * @throws IOException Throws an IOException if the file cannot be created.
+     */
+    public TrajectoryRecorder(Track track, Path file) throws IOException {
+        this(track, file, 4, 16384);
+    }
+
+    /**
+     * Constructor for the TrajectoryRecorder class. Writes the header, then starts the background writing thread.
+     *
+     * @param track (Track) the track whose vehicle is recorded
+     * @param file (Path) the file to record to, which is replaced if it exists
+     * @param buffers (Integer) the number of buffers, at least two, so that one can be filled while another is written
+     * @param records (Integer) the number of records each buffer holds
+     * @throws IOException Throws an IOException if the file cannot be created.
+     * @throws IllegalArgumentException if the board is too large for its coordinates to be recorded
+     */
+    public TrajectoryRecorder(Track track, Path file, int buffers, int records) throws IOException {
+        if (track.getXSize() > Short.MAX_VALUE || track.getYSize() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("the track is too large to be recorded");
+        }
+        this.track = track;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(RECORD).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+
+        free = new ArrayBlockingQueue<>(Math.max(2, buffers));
+        full = new ArrayBlockingQueue<>(Math.max(2, buffers));
+        for (int i = 0; i < Math.max(2, buffers); i++) {
+            free.add(ByteBuffer.allocateDirect(records * RECORD).order(ByteOrder.LITTLE_ENDIAN));
+        }
+        current = free.poll();
+        writer = new Thread(this::write, "trajectory-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void onStep(int time, int xAction, int yAction, int x, int y) {
+        if (current != null && current.remaining() < RECORD) {
+            current.flip();
+            full.add(current); // never full: there are no more buffers than it holds
+            current = null;
+        }
+        if (current == null && (current = free.poll()) == null) {
+            stalls++;
+            boolean interrupted = false;
+            while (current == null) { // the step is recorded even if the caller is interrupted while waiting
+                try {
+                    current = free.take();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Car car = track.car;
+        last = current.position();
+        current.putInt(time).putShort((short) x).putShort((short) y).putShort((short) x).putShort((short) y)
+                .put((byte) car.xVelocity).put((byte) car.yVelocity).put((byte) xAction).put((byte) yAction)
+                .put(car.ignored ? IGNORED : 0).putShort((short) 0).putInt(0).put((byte) 0)
+                .putDouble(Double.NaN);
+    }
+
+    @Override
+    public void onReward(int time, double reward) {
+        if (last >= 0) {
+            current.putDouble(last + 24, reward);
+        }
+    }
+
+    @Override
+    public void onReset(int time, int xCrash, int yCrash, int x, int y) {
+        if (last >= 0) {
+            current.putShort(last + 8, (short) x).putShort(last + 10, (short) y);
+            current.put(last + 16, (byte) (current.get(last + 16) | RESET));
+        }
+    }
+
+    /**
+     * @return the number of times the controller had to wait for the writer to free a buffer
+     */
+    public long getStalls() {
+        return stalls;
+    }
+
+    /**
+     * Method stops recording, then waits for the writer to write every buffered record and closes the file.
+     *
+     * @throws UncheckedIOException if any record could not be written
+     */
+    @Override
+    public void close() {
+        if (current != null && current.position() > 0) {
+            current.flip();
+            full.add(current);
+        }
+        current = null;
+        last = -1;
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            failure = failure == null ? e : failure;
+        }
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    /**
+     * Body of the writing thread: writes full buffers in order, and returns them to the pool, until the recorder is
+     * closed and every buffer handed over has been written. After an error, buffers are returned without being written.
+     */
+    private void write() {
+        while (true) {
+            ByteBuffer buffer;
+            try {
+                buffer = full.poll(IDLE_NANOS, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (buffer == null) {
+                if (closed && full.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+
+            try {
+                while (failure == null && buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+            buffer.clear();
+            free.add(buffer);
+        }
+    }
+}
@@ -0,0 +1,534 @@
+package racetrack;
+
+import java.util.Arrays;
+
+/**
+ * Compiled form of a track board. Every state lists the actions which may be taken from it, and every action lists the
+ * states it may lead to together with their probabilities, all in flat primitive arrays (compressed sparse rows). Once
+ * compiled, solvers and controllers never have to re-derive the geometry of the board.
+ */
+public class TransitionModel {
+    public static final byte WALL = 0; // a wall, or a space out of bounds
+    public static final byte OPEN = 1; // an open space
+    public static final byte START = 2; // a starting space
+    public static final byte FINISH = 3; // a finish space
+    public static final int MAX_SPEED = 5; // the largest magnitude either velocity component of a vehicle may reach
+    public static final int VELOCITIES = 2 * MAX_SPEED + 1; // the number of values each velocity component may take
+    public static final int VELOCITY_STATES = VELOCITIES * VELOCITIES; // the number of velocity states of each space
+    static final double APPLIED = 0.8; // the probability that the requested acceleration is applied
+    static final double IGNORED = 0.2; // the probability that the requested acceleration is ignored
+    static final double STEP_REWARD = -1; // the reward received for every step taken before the finish line
+
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final int spaceStates; // the number of states of each space
+    private final byte[] spaces; // the type of each space, indexed by x * ySize + y
+    private final int[] stateActions; // offset of the first action of each state, followed by the total action count
+    private final byte[] actions; // each action, encoded as (i + 1) * 3 + (j + 1) for an acceleration of (i, j)
+    private final double[] rewards; // the reward received for taking each action
+    private final int[] actionSuccessors; // offset of the first successor of each action, followed by the total count
+    private final int[] successors; // the state index of each successor
+    private final double[] probabilities; // the probability of reaching each successor
+    private final int[] starts; // the state of each starting space at rest, averaged into the restart state
+    private final int restartState; // pseudo-successor of every collision when totalReset is enabled, or -1
+    private volatile int[] statePredecessors; // offset of the first predecessor of each state, built on first use
+    private int[] predecessors; // the state index of each predecessor
+    private double[] predecessorProbabilities; // the largest probability with which each predecessor reaches the state
+
+    private TransitionModel(int xSize, int ySize, int spaceStates, byte[] spaces, int[] starts, int restartState,
+                            Builder builder) {
+        this.xSize = xSize;
+        this.ySize = ySize;
+        this.spaceStates = spaceStates;
+        this.spaces = spaces;
+        this.starts = starts;
+        this.restartState = restartState;
+        stateActions = Arrays.copyOf(builder.stateActions, builder.stateCount + 1);
+        stateActions[builder.stateCount] = builder.actionCount;
+        actions = Arrays.copyOf(builder.actions, builder.actionCount);
+        rewards = Arrays.copyOf(builder.rewards, builder.actionCount);
+        actionSuccessors = Arrays.copyOf(builder.actionSuccessors, builder.actionCount + 1);
+        actionSuccessors[builder.actionCount] = builder.successorCount;
+        successors = Arrays.copyOf(builder.successors, builder.successorCount);
+        probabilities = Arrays.copyOf(builder.probabilities, builder.successorCount);
+    }
+
+    /**
+     * Method compiles the space-to-space model solved by ValueIteration. Each space is a state, and each action moves
+     * towards a neighbouring space which is not a wall. The value of an action is spread over the space it moves
+     * towards (20%) and that space's neighbours (10% each), and its reward is 1 on the finish line and 0 elsewhere.
+     *
+     * @param board (2D Character Array) ASCII representation of the game board
+     * @return the compiled model, with one state per space indexed by x * ySize + y
+     */
+    public static TransitionModel compileSpaces(char[][] board) {
+        return compileSpaces(Board.of(board));
+    }
+
+    /**
+     * Method compiles the space-to-space model solved by ValueIteration, see compileSpaces(char[][]).
+     *
+     * @param board (Board) the game board
+     * @return the compiled model, with one state per space indexed by x * ySize + y
+     */
+    public static TransitionModel compileSpaces(Board board) {
+        int xSize = board.getXSize();
+        int ySize = board.getYSize();
+        byte[] spaces = classify(board);
+        Builder builder = new Builder(xSize * ySize);
+
+        for (int x = 0; x < xSize; x++) {
+            for (int y = 0; y < ySize; y++) {
+                builder.beginState();
+                if (spaces[x * ySize + y] == WALL) { // walls take no actions
+                    continue;
+                }
+                double reward = spaces[x * ySize + y] == FINISH ? 1 : 0;
+                for (int i = -1; i <= 1; i++) {
+                    for (int j = -1; j <= 1; j++) {
+                        if (spaceAt(spaces, xSize, ySize, x + i, y + j) == WALL) { // do not evaluate walls as viable spaces
+                            continue;
+                        }
+                        builder.beginAction((i + 1) * 3 + (j + 1), reward);
+                        // the value of an action is taken around (x + i, y + i), as ValueIteration always has
+                        for (int k = -1; k <= 1; k++) {
+                            for (int l = -1; l <= 1; l++) {
+                                int xk = x + i + k;
+                                int yl = y + i + l;
+                                if (!(xk >= xSize || xk < 0 || yl >= ySize || yl < 0)) {
+                                    builder.addSuccessor(xk * ySize + yl, k != 0 || l != 0 ? 0.1 : 0.2);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return new TransitionModel(xSize, ySize, 1, spaces, new int[0], -1, builder);
+    }
+
+    /**
+     * Method compiles the velocity-aware model solved by VelocityValueIteration. Each (x, y, xVelocity, yVelocity) is a
+     * state, and each of the 9 accelerations is applied with an 80% chance and ignored with a 20% chance, as in
+     * Car.applyAcceleration(). Every step is rewarded -1, and the finish line is terminal. Moving out of bounds or into
+     * a wall stops the vehicle either on the nearest open space or on a random starting space, as the controllers do.
+     * A collision which restarts the vehicle leads to a single pseudo-state, see restartState(), rather than to every
+     * starting space.
+     *
+     * @param board (2D Character Array) ASCII representation of the game board
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @return the compiled model, with states indexed as described by indexOf()
+     */
+    public static TransitionModel compileVelocities(char[][] board, boolean totalReset) {
+        return compileVelocities(Board.of(board), totalReset);
+    }
+
+    /**
+     * Method compiles the velocity-aware model solved by VelocityValueIteration, see compileVelocities(char[][], boolean).
+     *
+     * @param board (Board) the game board
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @return the compiled model, with states indexed as described by indexOf()
+     * @throws IllegalArgumentException if the board has no starting spaces
+     */
+    public static TransitionModel compileVelocities(Board board, boolean totalReset) {
+        int xSize = board.getXSize();
+        int ySize = board.getYSize();
+        byte[] spaces = classify(board);
+        OpenSpaceIndex openSpaces = new OpenSpaceIndex(board);
+        int restart = totalReset ? xSize * ySize * VELOCITY_STATES : -1;
+        Builder builder = new Builder(xSize * ySize * VELOCITY_STATES + (totalReset ? 1 : 0));
+
+        int count = 0;
+        for (byte space : spaces) {
+            count += space == START ? 1 : 0;
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("the track has no starting spaces");
+        }
+        int[] starts = new int[count];
+        for (int space = 0, start = 0; space < spaces.length; space++) {
+            if (spaces[space] == START) {
+                starts[start++] = indexOf(ySize, space / ySize, space % ySize, 0, 0);
+            }
+        }
+
+        for (int x = 0; x < xSize; x++) {
+            for (int y = 0; y < ySize; y++) {
+                byte space = spaces[x * ySize + y];
+                for (int xVelocity = -MAX_SPEED; xVelocity <= MAX_SPEED; xVelocity++) {
+                    for (int yVelocity = -MAX_SPEED; yVelocity <= MAX_SPEED; yVelocity++) {
+                        builder.beginState();
+                        if (space == WALL || space == FINISH) { // walls are never occupied and the finish line is terminal
+                            continue;
+                        }
+                        for (int i = -1; i <= 1; i++) {
+                            for (int j = -1; j <= 1; j++) {
+                                builder.beginAction((i + 1) * 3 + (j + 1), STEP_REWARD);
+                                addOutcome(builder, spaces, openSpaces, xSize, ySize, restart, x, y,
+                                        clamp(xVelocity + i), clamp(yVelocity + j), APPLIED);
+                                addOutcome(builder, spaces, openSpaces, xSize, ySize, restart, x, y,
+                                        xVelocity, yVelocity, IGNORED);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (totalReset) {
+            builder.beginState(); // the restart state takes no actions; its value is set by its solver
+        }
+        return new TransitionModel(xSize, ySize, VELOCITY_STATES, spaces, starts, restart, builder);
+    }
+
+    /**
+     * Method adds the state a vehicle ends up in after moving from a space with a given velocity as a successor of the
+     * action being built. A collision leads to the restart state, when there is one.
+     */
+    private static void addOutcome(Builder builder, byte[] spaces, OpenSpaceIndex openSpaces, int xSize, int ySize,
+                                   int restart, int x, int y, int xVelocity, int yVelocity, double probability) {
+        int xNext = x + xVelocity;
+        int yNext = y + yVelocity;
+        if (spaceAt(spaces, xSize, ySize, xNext, yNext) != WALL) {
+            builder.addSuccessor(indexOf(ySize, xNext, yNext, xVelocity, yVelocity), probability);
+        } else if (restart < 0) { // the vehicle stops on the open space nearest to the collision
+            int nearest = openSpaces.nearest(xNext, yNext, x, y);
+            builder.addSuccessor(indexOf(ySize, nearest / ySize, nearest % ySize, 0, 0), probability);
+        } else { // every starting space is equally likely
+            builder.addSuccessor(restart, probability);
+        }
+    }
+
+    /**
+     * Method calculates the index of a velocity-aware state.
+     *
+     * @param ySize (Integer) the height of the track board
+     * @param x (Integer) the x coordinate of the vehicle
+     * @param y (Integer) the y coordinate of the vehicle
+     * @param xVelocity (Integer) the x velocity of the vehicle, in the range [-5, 5]
+     * @param yVelocity (Integer) the y velocity of the vehicle, in the range [-5, 5]
+     * @return the index of the state
+     */
+    private static int indexOf(int ySize, int x, int y, int xVelocity, int yVelocity) {
+        return ((x * ySize + y) * VELOCITIES + xVelocity + MAX_SPEED) * VELOCITIES + yVelocity + MAX_SPEED;
+    }
+
+    /**
+     * Method calculates the index of a state of this model. The velocity is ignored by space-to-space models.
+     *
+     * @param x (Integer) the x coordinate of the vehicle
+     * @param y (Integer) the y coordinate of the vehicle
+     * @param xVelocity (Integer) the x velocity of the vehicle, in the range [-5, 5]
+     * @param yVelocity (Integer) the y velocity of the vehicle, in the range [-5, 5]
+     * @return the index of the state
+     */
+    public int indexOf(int x, int y, int xVelocity, int yVelocity) {
+        return spaceStates == 1 ? x * ySize + y : indexOf(ySize, x, y, xVelocity, yVelocity);
+    }
+
+    /**
+     * Method limits a velocity component to the range [-5, 5], as the vehicle does.
+     *
+     * @param velocity (Integer) the velocity component
+     * @return the limited velocity component
+     */
+    static int clamp(int velocity) {
+        return Math.max(-MAX_SPEED, Math.min(velocity, MAX_SPEED));
+    }
+
+    /**
+     * Method converts every character of a board into its space type.
+     *
+     * @param board (Board) the game board
+     * @return the type of each space, indexed by x * ySize + y
+     */
+    static byte[] classify(Board board) {
+        int ySize = board.getYSize();
+        byte[] spaces = new byte[board.getXSize() * ySize];
+        for (int x = 0; x < board.getXSize(); x++) {
+            for (int y = 0; y < ySize; y++) {
+                switch (board.charAt(x, y)) {
+                    case '#': spaces[x * ySize + y] = WALL; break;
+                    case 'S': spaces[x * ySize + y] = START; break;
+                    case 'F': spaces[x * ySize + y] = FINISH; break;
+                    default: spaces[x * ySize + y] = OPEN;
+                }
+            }
+        }
+        return spaces;
+    }
+
+    private static byte spaceAt(byte[] spaces, int xSize, int ySize, int x, int y) {
+        if (x >= xSize || x < 0 || y >= ySize || y < 0) {
+            return WALL;
+        }
+        return spaces[x * ySize + y];
+    }
+
+    /**
+     * Method returns the type of a space. Spaces out of bounds are treated as walls.
+     *
+     * @param x (Integer) the x coordinate
+     * @param y (Integer) the y coordinate
+     * @return WALL, OPEN, START or FINISH
+     */
+    public byte spaceAt(int x, int y) {
+        return spaceAt(spaces, xSize, ySize, x, y);
+    }
+
+    public int getXSize() {
+        return xSize;
+    }
+
+    public int getYSize() {
+        return ySize;
+    }
+
+    /**
+     * @return the number of states in a single row (a single x coordinate) of the board
+     */
+    public int rowStates() {
+        return ySize * spaceStates;
+    }
+
+    /**
+     * @return the total number of states of the model, including the restart state
+     */
+    public int stateCount() {
+        return stateActions.length - 1;
+    }
+
+    /**
+     * Method returns the pseudo-state every collision leads to when totalReset is enabled. It takes no actions, and
+     * its value must be kept equal to the expected value of restarting, see restartValue(), by whoever solves the
+     * model; it is the last state, after every row of the board.
+     *
+     * @return the index of the restart state, or -1 if the model has none
+     */
+    public int restartState() {
+        return restartState;
+    }
+
+    /**
+     * Method calculates the expected value of restarting from a random starting space at rest.
+     *
+     * @param values (Float Array) the value of each state
+     * @return the average value of the starting states
+     */
+    public double restartValue(float[] values) {
+        double total = 0;
+        for (int start : starts) {
+            total += values[start] / starts.length;
+        }
+        return total;
+    }
+
+    /**
+     * Method determines whether any action may be taken from a state; walls and terminal states take none, and their
+     * values never change.
+     *
+     * @param state (Integer) the index of the state
+     * @return true if the state takes at least one action
+     */
+    public boolean isActive(int state) {
+        return stateActions[state] != stateActions[state + 1];
+    }
+
+    /**
+     * Method calculates the largest expected action value available from a state.
+     *
+     * @param state (Integer) the index of the state, which must be active
+     * @param gamma (Double) constant which modifies the impact of look-ahead states
+     * @param values (Double Array) the value of each state
+     * @return the largest action value of the state
+     */
+    public double bestValue(int state, double gamma, double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int action = stateActions[state]; action < stateActions[state + 1]; action++) {
+            double total = 0;
+            for (int successor = actionSuccessors[action]; successor < actionSuccessors[action + 1]; successor++) {
+                total += probabilities[successor] * values[successors[successor]];
+            }
+            max = Math.max(max, rewards[action] + (gamma * total));
+        }
+        return max;
+    }
+
+    /**
+     * Method calculates the largest expected action value available from a state.
+     *
+     * @param state (Integer) the index of the state, which must be active
+     * @param gamma (Double) constant which modifies the impact of look-ahead states
+     * @param values (Float Array) the value of each state
+     * @return the largest action value of the state
+     */
+    public double bestValue(int state, double gamma, float[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int action = stateActions[state]; action < stateActions[state + 1]; action++) {
+            double total = 0;
+            for (int successor = actionSuccessors[action]; successor < actionSuccessors[action + 1]; successor++) {
+                total += probabilities[successor] * values[successors[successor]];
+            }
+            max = Math.max(max, rewards[action] + (gamma * total));
+        }
+        return max;
+    }
+
+    /**
+     * Method determines the action which maximizes the expected value of a state.
+     *
+     * @param state (Integer) the index of the state
+     * @param gamma (Double) constant which modifies the impact of look-ahead states
+     * @param values (Float Array) the value of each state
+     * @return the best action, encoded as (i + 1) * 3 + (j + 1), or 4 (no acceleration) if the state takes no actions
+     */
+    public int bestAction(int state, double gamma, float[] values) {
+        int best = 4;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int action = stateActions[state]; action < stateActions[state + 1]; action++) {
+            double total = 0;
+            for (int successor = actionSuccessors[action]; successor < actionSuccessors[action + 1]; successor++) {
+                total += probabilities[successor] * values[successors[successor]];
+            }
+            double value = rewards[action] + (gamma * total);
+            if (value > max) {
+                max = value;
+                best = actions[action];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Method builds the reverse of the model on its first call: for every state, the states with an action which may
+     * lead to it, along with the largest probability of any such action doing so.
+     */
+    private synchronized void buildPredecessors() {
+        if (statePredecessors != null) {
+            return;
+        }
+        int states = stateCount();
+        int[] offsets = new int[states + 1];
+        int[] lastSeen = new int[states]; // the last predecessor recorded for each state, to skip repeated pairs
+        Arrays.fill(lastSeen, -1);
+        for (int state = 0; state < states; state++) {
+            for (int successor = actionSuccessors[stateActions[state]]; successor < actionSuccessors[stateActions[state + 1]]; successor++) {
+                if (lastSeen[successors[successor]] != state) {
+                    lastSeen[successors[successor]] = state;
+                    offsets[successors[successor] + 1]++;
+                }
+            }
+        }
+        for (int state = 0; state < states; state++) {
+            offsets[state + 1] += offsets[state];
+        }
+
+        int[] sources = new int[offsets[states]];
+        double[] maxima = new double[offsets[states]];
+        int[] fill = Arrays.copyOf(offsets, states); // the next free position of each state
+        int[] lastPosition = new int[states]; // where the last recorded predecessor of each state was placed
+        Arrays.fill(lastSeen, -1);
+        for (int state = 0; state < states; state++) {
+            for (int successor = actionSuccessors[stateActions[state]]; successor < actionSuccessors[stateActions[state + 1]]; successor++) {
+                int target = successors[successor];
+                if (lastSeen[target] != state) {
+                    lastSeen[target] = state;
+                    lastPosition[target] = fill[target]++;
+                    sources[lastPosition[target]] = state;
+                }
+                maxima[lastPosition[target]] = Math.max(maxima[lastPosition[target]], probabilities[successor]);
+            }
+        }
+        predecessors = sources;
+        predecessorProbabilities = maxima;
+        statePredecessors = offsets;
+    }
+
+    /**
+     * @param state (Integer) the index of a state
+     * @return the position of the first predecessor of the state, see predecessorAt()
+     */
+    public int firstPredecessor(int state) {
+        if (statePredecessors == null) {
+            buildPredecessors();
+        }
+        return statePredecessors[state];
+    }
+
+    /**
+     * @param state (Integer) the index of a state
+     * @return the position after the last predecessor of the state, see predecessorAt()
+     */
+    public int endPredecessor(int state) {
+        if (statePredecessors == null) {
+            buildPredecessors();
+        }
+        return statePredecessors[state + 1];
+    }
+
+    /**
+     * @param position (Integer) a position between firstPredecessor() and endPredecessor() of some state
+     * @return the index of the predecessor at the position
+     */
+    public int predecessorAt(int position) {
+        return predecessors[position];
+    }
+
+    /**
+     * @param position (Integer) a position between firstPredecessor() and endPredecessor() of some state
+     * @return the largest probability with which any action of the predecessor at the position reaches the state
+     */
+    public double predecessorProbabilityAt(int position) {
+        return predecessorProbabilities[position];
+    }
+
+    /**
+     * Growable primitive arrays used while a model is being compiled.
+     */
+    private static class Builder {
+        private int[] stateActions;
+        private byte[] actions = new byte[64];
+        private double[] rewards = new double[64];
+        private int[] actionSuccessors = new int[64];
+        private int[] successors = new int[256];
+        private double[] probabilities = new double[256];
+        private int stateCount;
+        private int actionCount;
+        private int successorCount;
+
+        private Builder(int states) {
+            stateActions = new int[states + 1];
+        }
+
+        private void beginState() {
+            stateActions[stateCount++] = actionCount;
+        }
+
+        private void beginAction(int action, double reward) {
+            if (actionCount + 1 >= actions.length) {
+                actions = Arrays.copyOf(actions, actions.length * 2);
+                rewards = Arrays.copyOf(rewards, rewards.length * 2);
+                actionSuccessors = Arrays.copyOf(actionSuccessors, actionSuccessors.length * 2);
+            }
+            actions[actionCount] = (byte) action;
+            rewards[actionCount] = reward;
+            actionSuccessors[actionCount++] = successorCount;
+        }
+
+        private void addSuccessor(int state, double probability) {
+            // merge repeated successors of the same action, such as when accelerating and ignoring lead to one state
+            for (int successor = actionSuccessors[actionCount - 1]; successor < successorCount; successor++) {
+                if (successors[successor] == state) {
+                    probabilities[successor] += probability;
+                    return;
+                }
+            }
+            if (successorCount == successors.length) {
+                successors = Arrays.copyOf(successors, successors.length * 2);
+                probabilities = Arrays.copyOf(probabilities, probabilities.length * 2);
+            }
+            successors[successorCount] = state;
+            probabilities[successorCount++] = probability;
+        }
+    }
+}
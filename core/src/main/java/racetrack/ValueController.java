@@ -0,0 +1,195 @@
+package racetrack;
+
+public class ValueController {
+
+    private Car car;
+    private Track track;
+    private OpenSpaceIndex openSpaces; // nearest open space to every collision position on the track
+    private TelemetrySink telemetry; // receives the progress of the controller
+    private boolean totalReset; // determines whether the vehicle returns to its origin upon a collision
+    private int xSize; // width of the track board
+    private int ySize; // height of the track board
+    private int xCur; // the current x position of the vehicle
+    private int yCur; // the current y position of the vehicle
+    private int xAction; // the next acceleration to be applied to the x velocity
+    private int yAction; // the next acceleration to be applied to the y velocity
+    private double[][] valueTable; // value table the policy was compiled from, if provided
+    private Policy policy; // compiled greedy policy used to decide actions
+
+    /**
+     * Constructor for the ValueController class. Takes in a track, value table, and boolean state to determine
+     * if the vehicle on the track will return to its origin upon colliding with a wall.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param valueTable (2D Double Array) array containing the action values for each space on the track
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     */
+    public ValueController(Track track, double[][] valueTable, boolean totalReset) {
+        this(track, valueTable, totalReset, new ConsoleTelemetrySink(track, 1));
+    }
+
+    /**
+     * Constructor for the ValueController class. Takes in a track, value table, boolean state to determine if the
+     * vehicle on the track will return to its origin upon colliding with a wall, and the sink which receives the
+     * progress of the controller.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param valueTable (2D Double Array) array containing the action values for each space on the track
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param telemetry (TelemetrySink) receives every step and reset of the controller
+     */
+    public ValueController(Track track, double[][] valueTable, boolean totalReset, TelemetrySink telemetry) {
+        this(track, Policy.compile(valueTable), totalReset, telemetry);
+        this.valueTable = valueTable;
+    }
+
+    /**
+     * Constructor for the ValueController class which drives from a value table restored from a checkpoint, see
+     * Checkpoint.writeValueTable(), instead of solving the track again.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on, with the board of the checkpoint
+     * @param checkpoint (Checkpoint) a VALUE_TABLE checkpoint, see Checkpoint.open()
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param telemetry (TelemetrySink) receives every step and reset of the controller
+     */
+    public ValueController(Track track, Checkpoint checkpoint, boolean totalReset, TelemetrySink telemetry) {
+        this(track, verified(track, checkpoint).readValueTable(), totalReset, telemetry);
+    }
+
+    /**
+     * Constructor for the ValueController class. Takes in a track, a solved velocity-aware value iteration, and boolean
+     * state to determine if the vehicle on the track will return to its origin upon colliding with a wall. Actions are
+     * chosen from the velocity of the vehicle as well as its position.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param velocityValues (VelocityValueIteration) solved state values for each position and velocity on the track
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     */
+    public ValueController(Track track, VelocityValueIteration velocityValues, boolean totalReset) {
+        this(track, velocityValues, totalReset, new ConsoleTelemetrySink(track, 1));
+    }
+
+    /**
+     * Constructor for the ValueController class. Takes in a track, a solved velocity-aware value iteration, boolean
+     * state to determine if the vehicle on the track will return to its origin upon colliding with a wall, and the sink
+     * which receives the progress of the controller.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param velocityValues (VelocityValueIteration) solved state values for each position and velocity on the track
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param telemetry (TelemetrySink) receives every step and reset of the controller
+     */
+    public ValueController(Track track, VelocityValueIteration velocityValues, boolean totalReset,
+                           TelemetrySink telemetry) {
+        this(track, Policy.compile(velocityValues, track.getXSize(), track.getYSize()), totalReset, telemetry);
+    }
+
+    /**
+     * Constructor for the ValueController class. Takes in a track, a compiled policy, and boolean state to determine if
+     * the vehicle on the track will return to its origin upon colliding with a wall.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param policy (Policy) compiled greedy policy for the track, which may be shared with other controllers
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     */
+    public ValueController(Track track, Policy policy, boolean totalReset) {
+        this(track, policy, totalReset, new ConsoleTelemetrySink(track, 1));
+    }
+
+    /**
+     * Constructor for the ValueController class. Takes in a track, a compiled policy, boolean state to determine if the
+     * vehicle on the track will return to its origin upon colliding with a wall, and the sink which receives the
+     * progress of the controller. Every action is looked up in the policy, so the controller allocates nothing while
+     * it drives.
+     *
+     * @param track (Track) the track which the controller will drive its vehicle on
+     * @param policy (Policy) compiled greedy policy for the track, which may be shared with other controllers
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     * @param telemetry (TelemetrySink) receives every step and reset of the controller
+     */
+    public ValueController(Track track, Policy policy, boolean totalReset, TelemetrySink telemetry) {
+        if (policy.getXSize() != track.getXSize() || policy.getYSize() != track.getYSize()) {
+            throw new IllegalArgumentException("policy does not match the size of the track");
+        }
+        this.track = track;
+        this.telemetry = telemetry;
+        this.car = track.car;
+        this.openSpaces = track.openSpaceIndex();
+        this.policy = policy;
+        this.totalReset = totalReset;
+        xSize = track.getXSize();
+        ySize = track.getYSize();
+        xCur = car.x;
+        yCur = car.y;
+        decideNextAction(); // determines the first action the controller will take
+    }
+
+    private static Checkpoint verified(Track track, Checkpoint checkpoint) {
+        checkpoint.verify(track, Checkpoint.VALUE_TABLE);
+        return checkpoint;
+    }
+
+    /**
+     * Method prepares the controller for a new episode after the vehicle has been placed back on a starting space, for
+     * example by Track.newEpisode(). The policy is kept, so no solving is repeated between episodes.
+     */
+    public void beginEpisode() {
+        xCur = car.x;
+        yCur = car.y;
+        decideNextAction(); // determines the first action of the episode
+    }
+
+    public void start() {
+        if (valueTable != null) {
+            telemetry.onValueTable(valueTable);
+        }
+        while (true) {
+            if (act()) break;
+        }
+    }
+
+    /**
+     * Method applies the next action to the vehicle, then updates instance values and calls the decideNextAction()
+     * method.
+     */
+    public boolean act() {
+        car.applyAcceleration(xAction, yAction);
+        xCur = car.x;
+        yCur = car.y;
+
+        // report the vehicle updates
+        telemetry.onStep(car.currentTime, xAction, yAction, xCur, yCur);
+        return decideNextAction();
+    }
+
+    /**
+     * Method determines what the next action to be applied will be. The method also checks to make sure that the
+     * vehicle is within bounds and whether it has reached the finish line yet.
+     */
+    private boolean decideNextAction() {
+        byte space = track.spaceAt(xCur, yCur); // out of bounds spaces are walls
+        if (space == TransitionModel.WALL) {
+            int xCrash = xCur;
+            int yCrash = yCur;
+            if (totalReset) { // vehicle resets to its origin
+                car.reset();
+                xCur = car.x;
+                yCur = car.y;
+            } else { // vehicle resets to its previous state
+                int nearest = openSpaces.nearest(xCur, yCur, xCur, yCur);
+                xCur = nearest / ySize;
+                yCur = nearest % ySize;
+                car.reset(xCur, yCur);
+            }
+            telemetry.onReset(car.currentTime, xCrash, yCrash, xCur, yCur);
+        } else if (space == TransitionModel.FINISH) { // terminate if the vehicle reaches the finish line
+            return true;
+        }
+
+        // vehicle has not reached the finish line yet, so pick another action
+        int encoded = policy.actionAt(xCur, yCur, car.xVelocity, car.yVelocity);
+        xAction = encoded / 3 - 1;
+        yAction = encoded % 3 - 1;
+        return false;
+    }
+}
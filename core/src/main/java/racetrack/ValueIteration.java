@@ -0,0 +1,262 @@
+package racetrack;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class ValueIteration {
+    private final ForkJoinPool pool; // the pool each sweep is split across
+    private final TransitionModel model; // compiled space-to-space model of the game board
+    private double[] previous; // the previous state of the value table, indexed by x * ySize + y
+    private double[] current; // the current state of the value table, indexed by x * ySize + y
+    private long backups; // the number of Bellman backups performed so far
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final int bandRows; // the number of rows below which a band is swept directly instead of being split
+    private final int activeSpaces; // the number of spaces updated by each sweep
+    private final double gamma; // constant which modifies the impact of look-ahead spaces
+    private boolean vectorized; // state determining whether solve() sweeps with VectorKernel
+    private VectorKernel vectorKernel; // the vectorized sweep, built by the first vectorized solve()
+
+    // the Vector API is only usable when its incubating module has been added; VectorKernel must not load otherwise
+    private static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    private static final Metrics.Counter SWEEPS = Metrics.counter("valueIteration.sweeps");
+    private static final Metrics.Histogram SWEEP_NANOS = Metrics.histogram("valueIteration.sweepNanos");
+    private static final Metrics.Gauge RESIDUAL = Metrics.gauge("valueIteration.residual");
+
+    /**
+     * Constructor for the ValueIteration class. Compiles the provided board and prepares the value tables; sweeps are
+     * executed on the common fork-join pool.
+     *
+     * @param inputTable (2D Character Array) ASCII representation of the game board
+     * @param gamma (Double) constant between in the range [0, 1] which modifies the impact of look-ahead spaces
+     */
+    public ValueIteration(char[][] inputTable, double gamma) {
+        this(TransitionModel.compileSpaces(inputTable), gamma, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for the ValueIteration class. Prepares the value tables of a compiled board, such as the one cached
+     * by Track.spaceModel(). Every solver owns its own tables, so several solvers may run on different boards, or on
+     * the same model, at the same time. Sweeps use VectorKernel when the JVM was started with
+     * --add-modules jdk.incubator.vector, unless -Dracetrack.scalar=true is set; see setVectorized().
+     *
+     * @param model (TransitionModel) compiled space-to-space model of the game board
+     * @param gamma (Double) constant between in the range [0, 1] which modifies the impact of look-ahead spaces
+     * @param pool (ForkJoinPool) the pool the row bands of each sweep are executed on
+     */
+    public ValueIteration(TransitionModel model, double gamma, ForkJoinPool pool) {
+        this.model = model;
+        this.gamma = gamma;
+        this.pool = pool;
+        xSize = model.getXSize();
+        ySize = model.getYSize();
+        bandRows = SweepBand.bandRows(pool, xSize, ySize);
+        previous = new double[xSize * ySize];
+        current = new double[xSize * ySize];
+
+        int active = 0;
+        for (int space = 0; space < xSize * ySize; space++) {
+            if (model.isActive(space)) {
+                active++;
+            }
+        }
+        activeSpaces = active;
+
+        // set the initial state of the previous and current tables to be equal to the reward matrix
+        for (int i = 0; i < xSize; i++) {
+            for (int j = 0; j < ySize; j++) {
+                if (model.spaceAt(i, j) == TransitionModel.FINISH) { // the target spaces have a reward value of 1
+                    previous[i * ySize + j] = 1;
+                    current[i * ySize + j] = 1;
+                }
+            }
+        }
+        vectorized = VECTOR_API && !Boolean.getBoolean("racetrack.scalar");
+    }
+
+    /**
+     * Method selects the sweep used by solve(): the vectorized VectorKernel, or the scalar sweep over the model. Both
+     * produce identical value tables.
+     *
+     * @param vectorized (Boolean) true to use VectorKernel, which requires --add-modules jdk.incubator.vector
+     * @throws IllegalStateException if vectorized is true and the jdk.incubator.vector module has not been added
+     */
+    public void setVectorized(boolean vectorized) {
+        if (vectorized && !VECTOR_API) {
+            throw new IllegalStateException("the jdk.incubator.vector module has not been added");
+        }
+        this.vectorized = vectorized;
+    }
+
+    /**
+     * @return true if solve() sweeps with VectorKernel
+     */
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    /**
+     * Method which generates the action value of every space on a provided track board using repeated Bellman updates.
+     *
+     * @param inputTable (2D Character Array) ASCII representation of the game board
+     * @param threshold (Double) difference threshold which determines when the action values have converged
+     * @param gamma (Double) constant between in the range [0, 1] which modifies the impact of look-ahead spaces
+     * @return a 2D array of doubles indicating the action value of each space on the board
+     */
+    public static double[][] generate(char[][] inputTable, double threshold, double gamma) {
+        return new ValueIteration(inputTable, gamma).solve(threshold);
+    }
+
+    /**
+     * Method repeats parallel Bellman sweeps over the board until the largest change made by a sweep no longer exceeds
+     * the provided threshold.
+     *
+     * @param threshold (Double) difference threshold which determines when the action values have converged
+     * @return a 2D array of doubles indicating the action value of each space on the board
+     */
+    public double[][] solve(double threshold) {
+        double[] swap;
+        int sweeps = 0;
+        if (vectorized) {
+            if (vectorKernel == null) {
+                vectorKernel = new VectorKernel(model, gamma);
+            }
+            vectorKernel.load(current); // the kernel sweeps its own padded copies of the tables
+        }
+        do {
+            // at the beginning of each iteration, the current value table becomes the previous table; walls are never
+            // written, so both tables always agree on them and no copy is required
+            swap = previous;
+            previous = current;
+            current = swap;
+            if (vectorized) {
+                vectorKernel.swap();
+            }
+            backups += activeSpaces;
+        } while (sweep(sweeps++) > threshold); // check for convergence
+
+        if (vectorized) {
+            vectorKernel.store(previous, current);
+        }
+        return table();
+    }
+
+    /**
+     * Method runs one parallel sweep over the board, measuring it when metrics are enabled.
+     *
+     * @param sweep (Integer) the number of sweeps completed before this one
+     * @return the largest value modification made by the sweep
+     */
+    private double sweep(int sweep) {
+        SweepBand.Rows rows = vectorized ? vectorKernel::sweepRows : this::sweepRows;
+        if (!Metrics.ENABLED) {
+            return pool.invoke(new SweepBand(rows, 0, xSize, bandRows));
+        }
+        SweepEvent event = new SweepEvent();
+        event.begin();
+        long start = System.nanoTime();
+        double residual = pool.invoke(new SweepBand(rows, 0, xSize, bandRows));
+        SWEEP_NANOS.record(System.nanoTime() - start);
+        SWEEPS.increment();
+        RESIDUAL.set(residual);
+        event.sweep = sweep;
+        event.states = activeSpaces;
+        event.residual = residual;
+        event.commit();
+        return residual;
+    }
+
+    /**
+     * Method solves the board asynchronously: values are updated in place, one space at a time, in order of how much
+     * they may still change. Each space carries an upper bound of its Bellman error. Updating a space raises the bounds
+     * of the spaces whose values depend on it, and those spaces are queued once their bound exceeds the threshold. Spaces
+     * far away from any change are never revisited. The method stops once no space can change by more than the
+     * threshold, the same guarantee solve() gives.
+     *
+     * @param threshold (Double) difference threshold which determines when the action values have converged
+     * @return a 2D array of doubles indicating the action value of each space on the board
+     */
+    public double[][] solvePrioritized(double threshold) {
+        IndexedMaxHeap queue = new IndexedMaxHeap(current.length);
+        double[] bounds = new double[current.length]; // upper bound of the Bellman error of each space
+        for (int space = 0; space < current.length; space++) {
+            if (model.isActive(space)) {
+                bounds[space] = Math.abs(model.bestValue(space, gamma, current) - current[space]);
+                backups++;
+                if (bounds[space] > threshold) {
+                    queue.set(space, bounds[space]);
+                }
+            }
+        }
+        propagate(queue, bounds, threshold);
+        return table();
+    }
+
+    /**
+     * Method updates queued spaces in place until no space is left with an error bound above the threshold.
+     *
+     * @param queue (IndexedMaxHeap) the spaces whose error bound exceeds the threshold, ordered by that bound
+     * @param bounds (Double Array) upper bound of the Bellman error of each space
+     * @param threshold (Double) difference threshold which determines when the action values have converged
+     */
+    private void propagate(IndexedMaxHeap queue, double[] bounds, double threshold) {
+        while (!queue.isEmpty()) {
+            int space = queue.poll();
+            double value = model.bestValue(space, gamma, current);
+            double change = Math.abs(value - current[space]);
+            current[space] = value;
+            bounds[space] = 0;
+            backups++;
+
+            // a space reached with probability p can move the backup of its predecessor by at most gamma * p * change
+            for (int k = model.firstPredecessor(space); k < model.endPredecessor(space); k++) {
+                int predecessor = model.predecessorAt(k);
+                if (model.isActive(predecessor)) {
+                    bounds[predecessor] += gamma * model.predecessorProbabilityAt(k) * change;
+                    if (bounds[predecessor] > threshold) {
+                        queue.set(predecessor, bounds[predecessor]);
+                    }
+                }
+            }
+        }
+        System.arraycopy(current, 0, previous, 0, current.length); // keep both tables in step for later sweeps
+    }
+
+    /**
+     * @return the number of Bellman backups performed so far, by sweeps and by prioritized updates alike
+     */
+    public long getBackups() {
+        return backups;
+    }
+
+    /**
+     * Method copies the current value table into a 2D array.
+     *
+     * @return a 2D array of doubles indicating the action value of each space on the board
+     */
+    private double[][] table() {
+        double[][] table = new double[xSize][ySize];
+        for (int i = 0; i < xSize; i++) {
+            System.arraycopy(current, i * ySize, table[i], 0, ySize);
+        }
+        return table;
+    }
+
+    /**
+     * Method updates every space within a range of rows, then returns the largest value modification made within it.
+     *
+     * @param from (Integer) the first row of the range
+     * @param to (Integer) the row after the last row of the range
+     * @return a double value representing the largest difference between a current space in the range and its
+     *         corresponding space on the previous table
+     */
+    private double sweepRows(int from, int to) {
+        double max = 0;
+        for (int space = from * ySize; space < to * ySize; space++) {
+            if (model.isActive(space)) { // do not update values for walls
+                current[space] = model.bestValue(space, gamma, previous); // update the target location
+                max = Math.max(max, Math.abs(current[space] - previous[space]));
+            }
+        }
+        return max;
+    }
+}
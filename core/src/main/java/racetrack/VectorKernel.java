@@ -0,0 +1,199 @@
+package racetrack;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vectorized form of the sweep of ValueIteration, built on the incubating Vector API; the JVM must be started with
+ * --add-modules jdk.incubator.vector for it to load. A row of spaces is updated a whole vector at a time, and the inner
+ * loop has no branches:
+ * <ul>
+ *     <li>the value tables are padded by two zero spaces on every side, so no neighbour is ever out of bounds; a zero
+ *     neighbour adds exactly nothing to a sum, which is what skipping it did;</li>
+ *     <li>the expected value of moving around every space, S(a, b), is computed once per row as a nine point stencil,
+ *     with the terms summed in the same order as TransitionModel.bestValue() sums them;</li>
+ *     <li>the best value of a space is R + gamma * S(x + i, y + i), maximised over the x accelerations i which have at
+ *     least one viable space to move into; other accelerations are excluded by adding a precomputed -infinity penalty,
+ *     and walls keep their value through a precomputed mask.</li>
+ * </ul>
+ * The result is identical, bit for bit, to the scalar sweep over a model from TransitionModel.compileSpaces().
+ */
+public class VectorKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final int PAD = 2; // zero spaces around the padded value tables
+
+    private final int xSize; // the width of the track board
+    private final int ySize; // the height of the track board
+    private final int rowLength; // ySize rounded up to a whole number of vectors
+    private final int width; // the length of each padded row of the value tables
+    private final double gamma; // constant which modifies the impact of look-ahead spaces
+    private final boolean[] active; // whether each space is updated, indexed by x * rowLength + y
+    private final double[] rewards; // the reward of each space, indexed by x * rowLength + y
+    private final double[][] penalties; // 0 or -infinity for each x acceleration of each space, indexed [i + 1][x * rowLength + y]
+    private double[] previous; // the padded previous value table, indexed by (x + PAD) * width + y + PAD
+    private double[] current; // the padded current value table, indexed by (x + PAD) * width + y + PAD
+
+    /**
+     * Constructor for the VectorKernel class.
+     *
+     * @param model (TransitionModel) a model compiled by TransitionModel.compileSpaces()
+     * @param gamma (Double) constant in the range [0, 1] which modifies the impact of look-ahead spaces
+     */
+    public VectorKernel(TransitionModel model, double gamma) {
+        this.gamma = gamma;
+        xSize = model.getXSize();
+        ySize = model.getYSize();
+        rowLength = (ySize + LANES - 1) / LANES * LANES;
+        width = rowLength + LANES + PAD;
+        previous = new double[(xSize + 2 * PAD) * width];
+        current = new double[(xSize + 2 * PAD) * width];
+        active = new boolean[xSize * rowLength];
+        rewards = new double[xSize * rowLength];
+        penalties = new double[3][xSize * rowLength];
+
+        for (int x = 0; x < xSize; x++) {
+            for (int y = 0; y < ySize; y++) {
+                int cell = x * rowLength + y;
+                active[cell] = model.isActive(x * ySize + y);
+                rewards[cell] = model.spaceAt(x, y) == TransitionModel.FINISH ? 1 : 0;
+                for (int i = -1; i <= 1; i++) {
+                    boolean viable = false; // whether any acceleration (i, j) moves into a space which is not a wall
+                    for (int j = -1; j <= 1; j++) {
+                        viable |= model.spaceAt(x + i, y + j) != TransitionModel.WALL;
+                    }
+                    penalties[i + 1][cell] = viable ? 0 : Double.NEGATIVE_INFINITY;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method copies a value table into both padded tables.
+     *
+     * @param values (Double Array) the value of each space, indexed by x * ySize + y
+     */
+    public void load(double[] values) {
+        for (int x = 0; x < xSize; x++) {
+            System.arraycopy(values, x * ySize, previous, (x + PAD) * width + PAD, ySize);
+            System.arraycopy(values, x * ySize, current, (x + PAD) * width + PAD, ySize);
+        }
+    }
+
+    /**
+     * Method copies the padded tables back out.
+     *
+     * @param previousValues (Double Array) receives the previous value of each space, indexed by x * ySize + y
+     * @param currentValues (Double Array) receives the current value of each space, indexed by x * ySize + y
+     */
+    public void store(double[] previousValues, double[] currentValues) {
+        for (int x = 0; x < xSize; x++) {
+            System.arraycopy(previous, (x + PAD) * width + PAD, previousValues, x * ySize, ySize);
+            System.arraycopy(current, (x + PAD) * width + PAD, currentValues, x * ySize, ySize);
+        }
+    }
+
+    /**
+     * Method makes the current table the previous one, ahead of the next sweep.
+     */
+    public void swap() {
+        double[] swap = previous;
+        previous = current;
+        current = swap;
+    }
+
+    /**
+     * Method updates every space within a range of rows, then returns the largest value modification made within it.
+     *
+     * @param from (Integer) the first row of the range
+     * @param to (Integer) the row after the last row of the range
+     * @return the largest difference between a current space in the range and its corresponding previous space
+     */
+    public double sweepRows(int from, int to) {
+        int sLength = rowLength + LANES; // S(a, b) is kept for b in [-1, rowLength + LANES - 1)
+        double[] stencil = new double[3 * sLength]; // S of the rows x - 1, x and x + 1, in a ring
+        expectRow(from - 1, stencil, Math.floorMod(from - 1, 3) * sLength);
+        expectRow(from, stencil, Math.floorMod(from, 3) * sLength);
+
+        DoubleVector gammas = DoubleVector.broadcast(SPECIES, gamma);
+        DoubleVector max = DoubleVector.zero(SPECIES);
+        for (int x = from; x < to; x++) {
+            expectRow(x + 1, stencil, Math.floorMod(x + 1, 3) * sLength);
+            int padded = (x + PAD) * width + PAD;
+            for (int y = 0; y < rowLength; y += LANES) {
+                int cell = x * rowLength + y;
+                DoubleVector reward = DoubleVector.fromArray(SPECIES, rewards, cell);
+                DoubleVector best = DoubleVector.broadcast(SPECIES, Double.NEGATIVE_INFINITY);
+                for (int i = -1; i <= 1; i++) {
+                    // S(x + i, y + i), stored at offset b + 1 of its row
+                    DoubleVector expected = DoubleVector.fromArray(SPECIES, stencil, Math.floorMod(x + i, 3) * sLength + y + i + 1);
+                    DoubleVector value = reward.add(expected.mul(gammas))
+                            .add(DoubleVector.fromArray(SPECIES, penalties[i + 1], cell));
+                    best = best.max(value);
+                }
+                DoubleVector before = DoubleVector.fromArray(SPECIES, previous, padded + y);
+                VectorMask<Double> update = VectorMask.fromArray(SPECIES, active, cell);
+                DoubleVector after = before.blend(best, update);
+                after.intoArray(current, padded + y);
+                max = max.max(after.sub(before).abs());
+            }
+        }
+        return max.reduceLanes(VectorOperators.MAX);
+    }
+
+    /**
+     * Method computes S(a, b), the expected previous value of moving around (a, b), for every b of a row.
+     *
+     * @param a (Integer) the row, in the range [-1, xSize]
+     * @param stencil (Double Array) the ring of rows the result is written to
+     * @param offset (Integer) the position of the row within the ring; S(a, b) is written at offset + b + 1
+     */
+    private void expectRow(int a, double[] stencil, int offset) {
+        for (int t = 0; t < rowLength + LANES; t += LANES) { // the lanes b = t - 1 ... t + LANES - 2
+            DoubleVector total = DoubleVector.zero(SPECIES);
+            for (int k = -1; k <= 1; k++) {
+                int row = (a + k + PAD) * width + t - 1 + PAD; // the padded index of (a + k, t - 1)
+                total = total.add(DoubleVector.fromArray(SPECIES, previous, row - 1).mul(0.1));
+                total = total.add(DoubleVector.fromArray(SPECIES, previous, row).mul(k != 0 ? 0.1 : 0.2));
+                total = total.add(DoubleVector.fromArray(SPECIES, previous, row + 1).mul(0.1));
+            }
+            total.intoArray(stencil, offset + t);
+        }
+    }
+
+    /**
+     * Method solves each track with both the scalar and the vectorized sweep, and reports whether the value tables are
+     * identical.
+     *
+     * @param args (String Array) gamma, followed by the file names of the tracks
+     */
+    public static void main(String[] args) throws IOException {
+        double gamma = Double.parseDouble(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            String fileName = args[i];
+            TransitionModel model = new Track(fileName).spaceModel();
+            ValueIteration scalar = new ValueIteration(model, gamma, ForkJoinPool.commonPool());
+            scalar.setVectorized(false);
+            ValueIteration vector = new ValueIteration(model, gamma, ForkJoinPool.commonPool());
+            vector.setVectorized(true);
+            double[][] expected = scalar.solve(0.0001);
+            double[][] actual = vector.solve(0.0001);
+            int mismatches = 0;
+            for (int x = 0; x < expected.length; x++) {
+                for (int y = 0; y < expected[x].length; y++) {
+                    if (Double.doubleToLongBits(expected[x][y]) != Double.doubleToLongBits(actual[x][y])) {
+                        mismatches++;
+                    }
+                }
+            }
+            System.out.println(fileName + ": " + (mismatches == 0 ? "identical" : mismatches + " spaces differ")
+                    + " (" + LANES + " lanes)");
+        }
+    }
+}
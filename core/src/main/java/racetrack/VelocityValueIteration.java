@@ -0,0 +1,160 @@
+package racetrack;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class VelocityValueIteration {
+    private final ForkJoinPool pool; // the pool each sweep is split across
+    private final TransitionModel model; // compiled velocity-aware model of the game board
+    private final int xSize; // the width of the track board
+    private final int bandRows; // the number of rows below which a band is swept directly instead of being split
+    private final int rowStates; // the number of states in each row of the board
+    private final double gamma; // constant which modifies the impact of look-ahead states
+    private final int restartState; // the state every collision leads to when totalReset is enabled, or -1
+    private float[] previous; // the previous state of the value table, one value per (x, y, xVelocity, yVelocity) state
+    private float[] current; // the current state of the value table, one value per (x, y, xVelocity, yVelocity) state
+
+    private static final Metrics.Counter SWEEPS = Metrics.counter("velocityValueIteration.sweeps");
+    private static final Metrics.Histogram SWEEP_NANOS = Metrics.histogram("velocityValueIteration.sweepNanos");
+    private static final Metrics.Gauge RESIDUAL = Metrics.gauge("velocityValueIteration.residual");
+
+    /**
+     * Constructor for the VelocityValueIteration class; sweeps are executed on the common fork-join pool.
+     *
+     * @param board (2D Character Array) ASCII representation of the game board
+     * @param gamma (Double) constant in the range [0, 1] which modifies the impact of look-ahead states
+     * @param totalReset (Boolean) state determining whether the vehicle will return to origin upon collision
+     */
+    public VelocityValueIteration(char[][] board, double gamma, boolean totalReset) {
+        this(TransitionModel.compileVelocities(board, totalReset), gamma, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for the VelocityValueIteration class. Unlike ValueIteration, the state of the vehicle includes its
+     * velocity, so the value of a space depends on how fast the vehicle is moving through it. The values of every
+     * (x, y, xVelocity, yVelocity) state are held in a single flat array. The value of a state is the negated expected
+     * number of steps needed to reach the finish line from it.
+     *
+     * @param model (TransitionModel) compiled velocity-aware model of the game board, see Track.velocityModel()
+     * @param gamma (Double) constant in the range [0, 1] which modifies the impact of look-ahead states
+     * @param pool (ForkJoinPool) the pool the row bands of each sweep are executed on
+     */
+    public VelocityValueIteration(TransitionModel model, double gamma, ForkJoinPool pool) {
+        this.model = model;
+        this.gamma = gamma;
+        this.pool = pool;
+        xSize = model.getXSize();
+        rowStates = model.rowStates();
+        restartState = model.restartState();
+        bandRows = SweepBand.bandRows(pool, xSize, rowStates);
+        previous = new float[model.stateCount()];
+        current = new float[model.stateCount()];
+    }
+
+    /**
+     * Method calculates the index of a state within the flat value table.
+     *
+     * @param x (Integer) the x coordinate of the vehicle
+     * @param y (Integer) the y coordinate of the vehicle
+     * @param xVelocity (Integer) the x velocity of the vehicle, in the range [-5, 5]
+     * @param yVelocity (Integer) the y velocity of the vehicle, in the range [-5, 5]
+     * @return the index of the state
+     */
+    public int indexOf(int x, int y, int xVelocity, int yVelocity) {
+        return model.indexOf(x, y, xVelocity, yVelocity);
+    }
+
+    /**
+     * Method repeats parallel Bellman sweeps over the state space until the largest change made by a sweep no longer
+     * exceeds the provided threshold.
+     *
+     * @param threshold (Double) difference threshold which determines when the state values have converged
+     * @return a flat array of floats indicating the value of each state, laid out as described by indexOf()
+     */
+    public float[] solve(double threshold) {
+        float[] swap;
+        int sweeps = 0;
+        do {
+            // walls and finish spaces are never written, so both tables always agree on them and no copy is required
+            swap = previous;
+            previous = current;
+            current = swap;
+            if (restartState >= 0) { // the expected value of restarting is averaged once per sweep
+                previous[restartState] = (float) model.restartValue(previous);
+            }
+        } while (sweep(sweeps++) > threshold); // check for convergence
+
+        if (restartState >= 0) {
+            current[restartState] = (float) model.restartValue(current);
+        }
+        return current;
+    }
+
+    /**
+     * Method runs one parallel sweep over the state space, measuring it when metrics are enabled.
+     *
+     * @param sweep (Integer) the number of sweeps completed before this one
+     * @return the largest value modification made by the sweep
+     */
+    private double sweep(int sweep) {
+        if (!Metrics.ENABLED) {
+            return pool.invoke(new SweepBand(this::sweepRows, 0, xSize, bandRows));
+        }
+        SweepEvent event = new SweepEvent();
+        event.begin();
+        long start = System.nanoTime();
+        double residual = pool.invoke(new SweepBand(this::sweepRows, 0, xSize, bandRows));
+        SWEEP_NANOS.record(System.nanoTime() - start);
+        SWEEPS.increment();
+        RESIDUAL.set(residual);
+        event.sweep = sweep;
+        event.states = current.length;
+        event.residual = residual;
+        event.commit();
+        return residual;
+    }
+
+    /**
+     * Method returns the value of a state after solve() has been called.
+     *
+     * @param x (Integer) the x coordinate of the vehicle
+     * @param y (Integer) the y coordinate of the vehicle
+     * @param xVelocity (Integer) the x velocity of the vehicle, in the range [-5, 5]
+     * @param yVelocity (Integer) the y velocity of the vehicle, in the range [-5, 5]
+     * @return the value of the state
+     */
+    public double valueOf(int x, int y, int xVelocity, int yVelocity) {
+        return current[indexOf(x, y, xVelocity, yVelocity)];
+    }
+
+    /**
+     * Method determines the action which maximizes the expected value of a state, encoded as (i + 1) * 3 + (j + 1) for
+     * an acceleration of i on the x coordinate and j on the y coordinate.
+     *
+     * @param x (Integer) the x coordinate of the vehicle
+     * @param y (Integer) the y coordinate of the vehicle
+     * @param xVelocity (Integer) the x velocity of the vehicle, in the range [-5, 5]
+     * @param yVelocity (Integer) the y velocity of the vehicle, in the range [-5, 5]
+     * @return the encoded best action
+     */
+    public int bestAction(int x, int y, int xVelocity, int yVelocity) {
+        return model.bestAction(indexOf(x, y, xVelocity, yVelocity), gamma, current);
+    }
+
+    /**
+     * Method updates every state within a range of rows, then returns the largest value modification made within it.
+     *
+     * @param from (Integer) the first row of the range
+     * @param to (Integer) the row after the last row of the range
+     * @return the largest difference between a current state in the range and its corresponding previous state
+     */
+    private double sweepRows(int from, int to) {
+        double max = 0;
+        for (int state = from * rowStates; state < to * rowStates; state++) {
+            if (model.isActive(state)) { // walls are never occupied and the finish line is terminal
+                current[state] = (float) model.bestValue(state, gamma, previous);
+                max = Math.max(max, Math.abs(current[state] - previous[state]));
+            }
+        }
+        return max;
+    }
+}